@@ -0,0 +1,147 @@
+package compiler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.*;
+import org.openjdk.jmh.annotations.*;
+import compiler.lib.*;
+import compiler.exc.*;
+import svm.*;
+
+// Stages from type checking to execution, each measured on the output of the previous one,
+// which is computed once per trial. Type checking and class hierarchy analysis are measured on
+// the AST before inlining and constant folding; these two rewrite the declarations of the AST
+// they are run on, so each invocation gets a new copy of its input (see FreshAst, InlinedAst).
+// The VM is measured with both engines, and with the garbage-collected heap, with a discarding
+// output sink so that printing does not dominate.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BackEndBenchmark {
+
+    @Param({"quicksort.fool", "quicksort:100", "generated:400"})
+    public String input;
+
+    private Node ast;       // type checked, with the method calls bound by ClassHierarchyAnalysis
+    private Node optimized; // after inlining and constant folding
+    private String asm;
+    private Program program;
+
+    private static final OutputSink DISCARD = new OutputSink() {
+        public void print(int value) {}
+        public void message(String text) {}
+    };
+
+    @Setup(Level.Trial)
+    public void setup() throws TypeException {
+        ast = checkedAst(input);
+        optimized = new ConstantFoldingASTVisitor().visit(new InliningASTVisitor().visit(checkedAst(input)));
+        asm = String.join("\n", PeepholeOptimizer.optimize(codeGeneration()));
+        program = assembly();
+    }
+
+    // a new AST of the input, type checked and with the method calls bound by ClassHierarchyAnalysis
+    private static Node checkedAst(String input) throws TypeException {
+        FOOLParser parser = new FOOLParser(new CommonTokenStream(new FOOLLexer(
+                CharStreams.fromString(BenchmarkInputs.source(input)))));
+        Node ast = new ASTGenerationSTVisitor().visit(parser.prog());
+        SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor();
+        symtableVisitor.visit(ast);
+        CompilationContext context = new CompilationContext();
+        new TypeCheckEASTVisitor(context).visit(ast);
+        if (symtableVisitor.stErrors + context.typeErrors > 0)
+            throw new IllegalStateException(input + " has front-end errors");
+        new ClassHierarchyAnalysis().visit(ast);
+        return ast;
+    }
+
+    // input of inlining, built again for each invocation
+    @State(Scope.Thread)
+    public static class FreshAst {
+        Node ast;
+
+        @Setup(Level.Invocation)
+        public void setup(BackEndBenchmark benchmark) throws TypeException {
+            ast = checkedAst(benchmark.input);
+        }
+    }
+
+    // input of constant folding, built again for each invocation
+    @State(Scope.Thread)
+    public static class InlinedAst {
+        Node ast;
+
+        @Setup(Level.Invocation)
+        public void setup(BackEndBenchmark benchmark) throws TypeException {
+            ast = new InliningASTVisitor().visit(checkedAst(benchmark.input));
+        }
+    }
+
+    @Benchmark
+    public int typeCheck() throws TypeException {
+        CompilationContext context = new CompilationContext();
+        new TypeCheckEASTVisitor(context).visit(ast);
+        return context.typeErrors;
+    }
+
+    @Benchmark
+    public int classHierarchyAnalysis() {
+        ClassHierarchyAnalysis chaVisitor = new ClassHierarchyAnalysis();
+        chaVisitor.visit(ast);
+        return chaVisitor.devirtualized;
+    }
+
+    @Benchmark
+    public Node inlining(FreshAst fresh) {
+        return new InliningASTVisitor().visit(fresh.ast);
+    }
+
+    @Benchmark
+    public Node constantFolding(InlinedAst fresh) {
+        return new ConstantFoldingASTVisitor().visit(fresh.ast);
+    }
+
+    @Benchmark
+    public List<String> codeGeneration() {
+        CodeGenerationASTVisitor codeGenVisitor = new CodeGenerationASTVisitor(new CompilationContext());
+        codeGenVisitor.visit(optimized);
+        return codeGenVisitor.getCode();
+    }
+
+    @Benchmark
+    public List<String> peephole() {
+        return PeepholeOptimizer.optimize(codeGeneration());
+    }
+
+    @Benchmark
+    public Program assembly() {
+        SVMParser parserASM = new SVMParser(new CommonTokenStream(new SVMLexer(CharStreams.fromString(asm))));
+        parserASM.assembly();
+        return parserASM.program();
+    }
+
+    @Benchmark
+    public ExecuteVM executeVM() {
+        ExecuteVM vm = new ExecuteVM(program, DISCARD);
+        vm.cpu();
+        return vm;
+    }
+
+    @Benchmark
+    public ExecuteVM executeVMDecoded() {
+        ExecuteVM vm = new ExecuteVM(program, DISCARD);
+        vm.cpuDecoded();
+        return vm;
+    }
+
+    @Benchmark
+    public ExecuteVM executeVMCollected() {
+        ExecuteVM vm = new ExecuteVM(program, DISCARD, ExecuteVM.DEFAULT_STACKSIZE, ExecuteVM.DEFAULT_HEAPSIZE, true);
+        vm.cpuDecoded();
+        return vm;
+    }
+}
@@ -0,0 +1,46 @@
+package compiler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+// FOOL sources used by the benchmarks, selected by name:
+//   "quicksort.fool", "bankloan.fool", ...  sample file in the project directory
+//                                            (system property fool.dir, default ".")
+//   "quicksort:N"                            quicksort.fool sorting a list of N pseudo-random elements
+//   "generated:N"                            WorkloadGenerator program of size N
+public class BenchmarkInputs {
+
+    public static String source(String name) {
+        if (name.startsWith("quicksort:")) return quicksort(Integer.parseInt(name.substring("quicksort:".length())));
+        if (name.startsWith("generated:")) return WorkloadGenerator.generate(Integer.parseInt(name.substring("generated:".length())));
+        return read(name);
+    }
+
+    private static String read(String file) {
+        Path path = Paths.get(System.getProperty("fool.dir", "."), file);
+        try { // sample files are not UTF-8 (accented letters in comments)
+            return new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // replaces the list sorted by quicksort.fool with one of n elements
+    private static String quicksort(int n) {
+        String source = read("quicksort.fool");
+        int start = source.indexOf("var l:List =");
+        int end = source.lastIndexOf("in printList");
+        Random random = new Random(n);
+        StringBuilder list = new StringBuilder("var l:List = ");
+        for (int i = 0; i < n; i++) list.append("new List(").append(random.nextInt(1000)).append(", ");
+        list.append("null");
+        for (int i = 0; i < n; i++) list.append(')');
+        list.append(";\n\n");
+        return source.substring(0, start) + list + source.substring(end);
+    }
+}
@@ -0,0 +1,54 @@
+package compiler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.tree.*;
+import org.openjdk.jmh.annotations.*;
+import compiler.lib.*;
+
+// Front-end stages, each measured on the output of the previous one, which is computed once per trial.
+// bankloan.fool is included here only: it does not pass the symbol table (no inheritance support),
+// so the later stages run on the other inputs (see BackEndBenchmark).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontEndBenchmark {
+
+    @Param({"quicksort.fool", "bankloan.fool", "quicksort:100", "generated:400"})
+    public String input;
+
+    private String source;
+    private ParseTree st;
+    private Node ast;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        source = BenchmarkInputs.source(input);
+        st = parse();
+        ast = astGeneration();
+    }
+
+    @Benchmark
+    public ParseTree parse() {
+        FOOLLexer lexer = new FOOLLexer(CharStreams.fromString(source));
+        FOOLParser parser = new FOOLParser(new CommonTokenStream(lexer));
+        return parser.prog();
+    }
+
+    @Benchmark
+    public Node astGeneration() {
+        return new ASTGenerationSTVisitor().visit(st);
+    }
+
+    @Benchmark
+    public int symbolTable() {
+        SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor();
+        symtableVisitor.setLog(s -> {});
+        symtableVisitor.visit(ast);
+        return symtableVisitor.stErrors;
+    }
+}
@@ -0,0 +1,52 @@
+package compiler;
+
+import compiler.exc.CompilationException;
+import svm.OutputSink;
+import svm.Program;
+
+// Code-size benchmark for comparisons nested at increasing depth: for each depth, compiles
+// a left-nested chain ((x >= 1) >= true) >= ... and a complete binary tree of ">=" and "<=",
+// and reports the number of code words and the compile time.
+// Each comparison must evaluate its operands once, so code size has to grow linearly
+// with the number of comparisons (with the old GreaterEqualNode lowering it doubled at each level).
+// Usage: NestedComparisonCodeSize [maxDepth]  (default 16)
+public class NestedComparisonCodeSize {
+
+    public static void main(String[] args) throws CompilationException {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        FoolCompiler compiler = new FoolCompiler();
+        System.out.println("depth,shape,comparisons,codeWords,wordsPerComparison,compileMs");
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            report(compiler, depth, "chain", depth, chain(depth));
+            report(compiler, depth, "tree", (1 << depth) - 1, tree(depth));
+        }
+    }
+
+    private static void report(FoolCompiler compiler, int depth, String shape, int comparisons, String exp)
+            throws CompilationException {
+        String source = "let var x:int = 5; in print(" + exp + ");";
+        long start = System.nanoTime();
+        Program program = compiler.compile(source);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        compiler.run(program, new OutputSink() { // executes the program to check it is well formed
+            public void print(int value) {}
+            public void message(String text) { throw new IllegalStateException(text); }
+        });
+        System.out.printf("%d,%s,%d,%d,%.1f,%d%n", depth, shape, comparisons, program.code.length,
+                (double) program.code.length / comparisons, ms);
+    }
+
+    // ((x >= 1) >= true) >= true ... with depth comparisons
+    private static String chain(int depth) {
+        StringBuilder exp = new StringBuilder("x >= 1");
+        for (int d = 1; d < depth; d++) exp.insert(0, '(').append(") >= true");
+        return exp.toString();
+    }
+
+    // complete binary tree of depth levels, alternating ">=" and "<="
+    private static String tree(int depth) {
+        if (depth == 1) return "x >= 1";
+        String sub = tree(depth - 1);
+        return "(" + sub + ")" + (depth % 2 == 0 ? " >= " : " <= ") + "(" + sub + ")";
+    }
+}
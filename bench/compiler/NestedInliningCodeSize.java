@@ -0,0 +1,50 @@
+package compiler;
+
+import compiler.exc.CompilationException;
+import svm.OutputSink;
+import svm.Program;
+
+// Code-size benchmark for calls of inlinable functions nested at increasing depth: for each depth,
+// compiles f(f(...f(x <= 3)...)) for a function whose parameter is used in both branches of an
+// "if" and for one whose parameter is used once, and reports the number of code words and the
+// compile time.
+// An argument that is not a constant or a variable must not be copied into the body, so code
+// size has to grow linearly with the number of calls (when it was copied into both branches,
+// it doubled at each level).
+// Usage: NestedInliningCodeSize [maxDepth]  (default 16)
+public class NestedInliningCodeSize {
+
+    public static void main(String[] args) throws CompilationException {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        FoolCompiler compiler = new FoolCompiler();
+        System.out.println("depth,shape,codeWords,wordsPerCall,compileMs");
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            report(compiler, depth, "branches", "acc", nested("acc", depth));
+            report(compiler, depth, "once", "inc", nested("inc", depth));
+        }
+    }
+
+    private static void report(FoolCompiler compiler, int depth, String shape, String function, String exp)
+            throws CompilationException {
+        String source = "let var x:int = 5; var b:bool = true;"
+                + " fun acc:bool (c:bool) if (b) then {c} else {!(c)};"
+                + " fun inc:bool (c:bool) c || b;"
+                + " in print(" + exp + ");";
+        long start = System.nanoTime();
+        Program program = compiler.compile(source);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        compiler.run(program, new OutputSink() { // executes the program to check it is well formed
+            public void print(int value) {}
+            public void message(String text) { throw new IllegalStateException(text); }
+        });
+        System.out.printf("%d,%s,%d,%.1f,%d%n", depth, shape, program.code.length,
+                (double) program.code.length / depth, ms);
+    }
+
+    // f(f(...f(x <= 3)...)) with depth calls
+    private static String nested(String f, int depth) {
+        StringBuilder exp = new StringBuilder("x <= 3");
+        for (int d = 0; d < depth; d++) exp.insert(0, f + "(").append(")");
+        return exp.toString();
+    }
+}
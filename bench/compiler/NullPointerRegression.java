@@ -0,0 +1,67 @@
+package compiler;
+
+import java.util.*;
+
+import compiler.exc.CompilationException;
+import svm.ExecuteVM;
+import svm.OutputSink;
+import svm.Program;
+
+// Regression harness for accesses through null: each program reads a field of null or calls
+// a method on null and must stop with "Error: null pointer" (before, null was the address of a
+// stack word and the access read whatever was there, and method calls bound by
+// ClassHierarchyAnalysis did not read the object at all) on both the reference and the
+// pre-decoded engine.
+// Prints the output of each run (CSV) and exits with status 1 if some run differs from the
+// expected one.
+// Usage: NullPointerRegression
+public class NullPointerRegression {
+
+    private static final String LIST = "class List (f:int, r:List) { fun first:int() f; fun rest:List() r; "
+            + "fun one:int() 1; fun size:int() let var s:int = 1; in s; } ";
+
+    // name, program, expected output
+    private static final String[][] CASES = {
+            {"field", // getter inlined into a field access
+                    "let " + LIST + "var l:List = null; in print(l.first());",
+                    "Error: null pointer"},
+            {"field of field",
+                    "let " + LIST + "var l:List = new List(1, null); var r:List = l.rest(); in print(r.first());",
+                    "Error: null pointer"},
+            {"inlined call", // method that does not use the object
+                    "let " + LIST + "var l:List = null; in print(l.one());",
+                    "Error: null pointer"},
+            {"direct call", // method with local declarations, not inlined
+                    "let " + LIST + "var l:List = null; in print(l.size());",
+                    "Error: null pointer"},
+            {"tail call",
+                    "let " + LIST + "fun size:int (l:List) l.size(); in print(size(null));",
+                    "Error: null pointer"},
+            {"not null",
+                    "let " + LIST + "fun size:int (l:List) l.size(); var l:List = new List(1, new List(2, null)); "
+                            + "var r:List = l.rest(); in print(r.first() + l.one() + r.size() + size(l));",
+                    "5"},
+    };
+
+    public static void main(String[] args) throws CompilationException {
+        FoolCompiler compiler = new FoolCompiler();
+        boolean regression = false;
+        System.out.println("case,engine,output,status");
+        for (String[] c : CASES) {
+            Program program = compiler.compile(c[1]);
+            for (String engine : new String[] {"cpu", "cpuDecoded"}) {
+                List<String> output = new ArrayList<>();
+                ExecuteVM vm = new ExecuteVM(program, new OutputSink() {
+                    public void print(int value) { output.add(Integer.toString(value)); }
+                    public void message(String text) { output.add(text); }
+                });
+                if (engine.equals("cpu")) vm.cpu();
+                else vm.cpuDecoded();
+                boolean ok = String.join(" ", output).equals(c[2]);
+                System.out.println(c[0] + "," + engine + "," + String.join(" ", output) + "," + (ok ? "OK" : "FAIL"));
+                regression |= !ok;
+            }
+        }
+        if (regression) System.exit(1);
+    }
+}
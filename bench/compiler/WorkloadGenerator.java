@@ -0,0 +1,138 @@
+package compiler;
+
+import java.util.Random;
+
+// Generates type-correct FOOL programs whose size grows linearly with a size parameter n,
+// exercising the main constructs of FOOL.g4:
+//   - n classes, each with fields, a getter and a method calling another method of the class,
+//     and one object of each class
+//   - a List class (as in quicksort.fool) and a list of n elements built with nested "new",
+//     traversed by recursive functions
+//   - a chain of n functions, each calling the previous one
+//   - n levels of nested "let" (functions declared inside functions), the innermost one
+//     reading variables of the outermost levels through the static chain
+//   - a wide expression of n terms mixing arithmetic, comparisons and boolean operators on
+//     the fields of the objects, so that constant folding cannot reduce it
+// The program prints one value per part, computed in the main expression.
+// Programs with the same n and seed are identical.
+public class WorkloadGenerator {
+
+    private final int n;
+    private final Random random;
+    private final StringBuilder out = new StringBuilder();
+
+    private WorkloadGenerator(int n, long seed) {
+        this.n = n;
+        this.random = new Random(seed);
+    }
+
+    public static String generate(int n) {
+        return generate(n, n);
+    }
+
+    public static String generate(int n, long seed) {
+        if (n < 1) throw new IllegalArgumentException("size must be positive: " + n);
+        return new WorkloadGenerator(n, seed).program();
+    }
+
+    private String program() {
+        out.append("let\n");
+        classes();
+        listClass();
+        out.append("\n");
+        listFunctions();
+        callChain();
+        nestedLets();
+        objects();
+        list();
+        wideExpression();
+        out.append("in\n  print(sumList(l)) + print(maxList(l, 0)) + print(chain").append(n - 1).append("(1))")
+                .append("\n  + print(nest0(1)) + print(objects) + print(if wide then {1} else {0});\n");
+        return out.toString();
+    }
+
+    private void classes() {
+        for (int i = 0; i < n; i++) {
+            out.append("  class C").append(i).append(" (a:int, b:int, flag:bool) {\n")
+                    .append("    fun getA:int() a;\n")
+                    .append("    fun combine:int(k:int) if (flag) then {getA() * k + b} else {b - k};\n")
+                    .append("  }\n");
+        }
+    }
+
+    private void listClass() {
+        out.append("  class List (f:int, r:List) {\n")
+                .append("    fun first:int() f;\n")
+                .append("    fun rest:List() r;\n")
+                .append("  }\n");
+    }
+
+    private void listFunctions() {
+        out.append("  fun sumList:int (l:List)\n")
+                .append("      if (l == null) then {0} else {l.first() + sumList(l.rest())};\n")
+                .append("  fun maxList:int (l:List, m:int)\n")
+                .append("      if (l == null) then {m}\n")
+                .append("      else {if (l.first() >= m) then {maxList(l.rest(), l.first())} else {maxList(l.rest(), m)}};\n");
+    }
+
+    private void callChain() {
+        out.append("  fun chain0:int (x:int) x + 1;\n");
+        for (int i = 1; i < n; i++) {
+            out.append("  fun chain").append(i).append(":int (x:int) chain").append(i - 1)
+                    .append("(x) + ").append(i % 7).append(";\n");
+        }
+    }
+
+    // nest0 declares v0 and nest1, nest1 declares v1 and nest2, ...
+    private void nestedLets() {
+        nest(0, "  ");
+    }
+
+    private void nest(int i, String indent) {
+        out.append(indent).append("fun nest").append(i).append(":int (x:int)\n")
+                .append(indent).append("  let\n")
+                .append(indent).append("    var v").append(i).append(":int = x + ").append(literal()).append(";\n");
+        if (i < n - 1) nest(i + 1, indent.length() < 40 ? indent + "    " : indent); // keeps deep levels readable
+        out.append(indent).append("  in ")
+                .append(i < n - 1 ? "nest" + (i + 1) + "(v" + i + ") - x" : "v0 + v" + i + " + x").append(";\n");
+    }
+
+    private void objects() {
+        for (int i = 0; i < n; i++) {
+            out.append("  var o").append(i).append(":C").append(i).append(" = new C").append(i).append("(")
+                    .append(literal()).append(", ").append(literal()).append(", ").append(random.nextBoolean())
+                    .append(");\n");
+        }
+        out.append("  var objects:int = 0");
+        for (int i = 0; i < n; i++) {
+            out.append(i % 8 == 0 ? "\n    + " : " + ").append("o").append(i).append(".combine(").append(literal())
+                    .append(")");
+        }
+        out.append(";\n");
+    }
+
+    private void list() {
+        out.append("  var l:List =");
+        for (int i = 0; i < n; i++) out.append(i % 10 == 0 ? "\n    " : " ").append("new List(").append(literal()).append(",");
+        out.append(" null");
+        out.append(")".repeat(n)).append(";\n");
+    }
+
+    private void wideExpression() {
+        out.append("  var wide:bool = ");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) out.append(i % 2 == 0 ? " && " : " || ").append(i % 8 == 0 ? "\n    " : "");
+            out.append("(o").append(i).append(".getA()").append(random.nextBoolean() ? " * " : " + ").append(literal())
+                    .append(random.nextBoolean() ? " <= " : " >= ").append(literal()).append(")");
+        }
+        out.append(";\n");
+    }
+
+    private int literal() {
+        return random.nextInt(100);
+    }
+
+    public static void main(String[] args) {
+        System.out.print(generate(args.length > 0 ? Integer.parseInt(args[0]) : 10));
+    }
+}
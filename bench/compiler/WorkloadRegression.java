@@ -0,0 +1,108 @@
+package compiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import compiler.exc.CompilationException;
+import svm.OutputSink;
+import svm.Program;
+
+// Regression harness: compiles and runs WorkloadGenerator programs of growing size and
+// prints, for each size, source length, code words and median compile and VM times (CSV).
+// With --baseline=<csv> (a previous output of this harness) it also prints the ratio to the
+// baseline times and exits with status 1 if some time grew more than --tolerance (default 0.25).
+// It also exits with status 1 if a generated program does not compile: WorkloadGenerator
+// writes FOOL from templates, not from FOOL.g4, so its type-correctness is checked here.
+// Usage: WorkloadRegression [--baseline=file] [--tolerance=t] [--runs=r] [size...]
+public class WorkloadRegression {
+
+    private static final int[] DEFAULT_SIZES = {25, 50, 100, 200, 400, 800};
+
+    private static final OutputSink DISCARD = new OutputSink() {
+        public void print(int value) {}
+        public void message(String text) {}
+    };
+
+    public static void main(String[] args) throws IOException {
+        Map<Integer, double[]> baseline = null;
+        double tolerance = 0.25;
+        int runs = 10;
+        List<Integer> sizes = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--baseline=")) baseline = readBaseline(Paths.get(arg.substring("--baseline=".length())));
+            else if (arg.startsWith("--tolerance=")) tolerance = Double.parseDouble(arg.substring("--tolerance=".length()));
+            else if (arg.startsWith("--runs=")) runs = Integer.parseInt(arg.substring("--runs=".length()));
+            else sizes.add(Integer.parseInt(arg));
+        }
+        if (runs < 1) throw new IllegalArgumentException("--runs must be at least 1: " + runs);
+        if (sizes.isEmpty()) for (int s : DEFAULT_SIZES) sizes.add(s);
+
+        FoolCompiler compiler = new FoolCompiler();
+        boolean regression = false;
+        System.out.println("size,sourceChars,codeWords,compileMs,vmMs" + (baseline != null ? ",compileRatio,vmRatio" : ""));
+        for (int size : sizes) {
+            String source = WorkloadGenerator.generate(size);
+            Program program;
+            try { // parses and type checks the generated program before timing it
+                program = compiler.compile(source);
+            } catch (CompilationException e) {
+                System.out.println(size + ",not type-correct: " + String.join("; ", e.errors));
+                regression = true;
+                continue;
+            }
+            double compileMs, vmMs;
+            try {
+                compileMs = median(runs, () -> compiler.compile(source));
+                vmMs = median(runs, () -> compiler.run(program, DISCARD));
+            } catch (CompilationException | RuntimeException e) {
+                System.out.println(size + ",error: " + e);
+                regression = true;
+                continue;
+            }
+            String line = String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.3f", size, source.length(), program.code.length,
+                    compileMs, vmMs);
+            double[] base = baseline != null ? baseline.get(size) : null;
+            if (base != null) {
+                double compileRatio = compileMs / base[0], vmRatio = vmMs / base[1];
+                line += String.format(Locale.ROOT, ",%.2f,%.2f", compileRatio, vmRatio);
+                if (compileRatio > 1 + tolerance || vmRatio > 1 + tolerance) {
+                    line += ",REGRESSION";
+                    regression = true;
+                }
+            }
+            System.out.println(line);
+        }
+        if (regression) System.exit(1);
+    }
+
+    private interface Task {
+        void run() throws CompilationException;
+    }
+
+    // median wall-clock time in milliseconds, after as many warm-up runs
+    private static double median(int runs, Task task) throws CompilationException {
+        double[] times = new double[runs];
+        for (int i = 0; i < runs; i++) task.run();
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            times[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+
+    // size -> {compileMs, vmMs}
+    private static Map<Integer, double[]> readBaseline(Path file) throws IOException {
+        Map<Integer, double[]> baseline = new HashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            String[] f = line.split(",");
+            if (f.length < 5 || !f[0].matches("[0-9]+")) continue; // header and failed sizes
+            baseline.put(Integer.parseInt(f[0]), new double[]{Double.parseDouble(f[3]), Double.parseDouble(f[4])});
+        }
+        return baseline;
+    }
+}
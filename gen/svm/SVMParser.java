@@ -21,9 +21,11 @@ public class SVMParser extends Parser {
 		new PredictionContextCache();
 	public static final int
 		PUSH=1, POP=2, ADD=3, SUB=4, MULT=5, DIV=6, STOREW=7, LOADW=8, BRANCH=9, 
-		BRANCHEQ=10, BRANCHLESSEQ=11, JS=12, LOADRA=13, STORERA=14, LOADTM=15, 
-		STORETM=16, LOADFP=17, STOREFP=18, COPYFP=19, LOADHP=20, STOREHP=21, PRINT=22, 
-		HALT=23, COL=24, LABEL=25, INTEGER=26, COMMENT=27, WHITESP=28, ERR=29;
+		BRANCHEQ=10, BRANCHLESSEQ=11, BRANCHGREATEREQ=12, JS=13, LOADRA=14, STORERA=15, 
+		LOADTM=16, STORETM=17, LOADFP=18, STOREFP=19, COPYFP=20, LOADHP=21, STOREHP=22, 
+		PRINT=23, HALT=24, LOADWFP=25, STOREWFP=26, LOADWOFF=27, HEAPPUSH=28, 
+		DUP=29, EQUAL=30, LESSEQ=31, LESS=32, NOT=33, AND=34, OR=35, ALLOC=36, 
+		METHODCALL=37, COL=38, LABEL=39, INTEGER=40, COMMENT=41, WHITESP=42, ERR=43;
 	public static final int
 		RULE_assembly = 0, RULE_instruction = 1;
 	private static String[] makeRuleNames() {
@@ -36,18 +38,21 @@ public class SVMParser extends Parser {
 	private static String[] makeLiteralNames() {
 		return new String[] {
 			null, "'push'", "'pop'", "'add'", "'sub'", "'mult'", "'div'", "'sw'", 
-			"'lw'", "'b'", "'beq'", "'bleq'", "'js'", "'lra'", "'sra'", "'ltm'", 
-			"'stm'", "'lfp'", "'sfp'", "'cfp'", "'lhp'", "'shp'", "'print'", "'halt'", 
-			"':'"
+			"'lw'", "'b'", "'beq'", "'bleq'", "'bgeq'", "'js'", "'lra'", "'sra'", 
+			"'ltm'", "'stm'", "'lfp'", "'sfp'", "'cfp'", "'lhp'", "'shp'", "'print'", 
+			"'halt'", "'lwfp'", "'swfp'", "'lwo'", "'hpush'", "'dup'", "'eq'", "'le'", 
+			"'lt'", "'not'", "'and'", "'or'", "'alloc'", "'mcall'", "':'"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
 	private static String[] makeSymbolicNames() {
 		return new String[] {
 			null, "PUSH", "POP", "ADD", "SUB", "MULT", "DIV", "STOREW", "LOADW", 
-			"BRANCH", "BRANCHEQ", "BRANCHLESSEQ", "JS", "LOADRA", "STORERA", "LOADTM", 
-			"STORETM", "LOADFP", "STOREFP", "COPYFP", "LOADHP", "STOREHP", "PRINT", 
-			"HALT", "COL", "LABEL", "INTEGER", "COMMENT", "WHITESP", "ERR"
+			"BRANCH", "BRANCHEQ", "BRANCHLESSEQ", "BRANCHGREATEREQ", "JS", "LOADRA", 
+			"STORERA", "LOADTM", "STORETM", "LOADFP", "STOREFP", "COPYFP", "LOADHP", 
+			"STOREHP", "PRINT", "HALT", "LOADWFP", "STOREWFP", "LOADWOFF", "HEAPPUSH", 
+			"DUP", "EQUAL", "LESSEQ", "LESS", "NOT", "AND", "OR", "ALLOC", "METHODCALL", 
+			"COL", "LABEL", "INTEGER", "COMMENT", "WHITESP", "ERR"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -97,11 +102,30 @@ public class SVMParser extends Parser {
 	public ATN getATN() { return _ATN; }
 
 	 
-	public int[] code = new int[ExecuteVM.CODESIZE];    
+	public int[] code = new int[1024]; // code and sourceMap grow while assembling, then trimmed to the program size
+	public int[] sourceMap = new int[1024]; // line of the assembly text (from 0) of each code word
 	private int i = 0;
 	private Map<String,Integer> labelDef = new HashMap<>();
 	private Map<Integer,String> labelRef = new HashMap<>();
 
+	private void emit(int word) {
+	  if (i == code.length) {
+	    code = Arrays.copyOf(code, 2 * code.length);
+	    sourceMap = Arrays.copyOf(sourceMap, 2 * sourceMap.length);
+	  }
+	  sourceMap[i] = _ctx.start.getLine() - 1;
+	  code[i++] = word;
+	}
+
+	private void emitLabel(String label) { // placeholder, set to the label address at the end
+	  labelRef.put(i, label);
+	  emit(0);
+	}
+
+	public Program program() { // assembled program, to be run or saved as object file
+	  return new Program(Arrays.copyOf(code, i), labelDef, Arrays.copyOf(sourceMap, i));
+	}
+
 	public SVMParser(TokenStream input) {
 		super(input);
 		_interp = new ParserATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
@@ -145,7 +169,7 @@ public class SVMParser extends Parser {
 			setState(7);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 50331646L) != 0)) {
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 824633720830L) != 0)) {
 				{
 				{
 				setState(4);
@@ -160,6 +184,8 @@ public class SVMParser extends Parser {
 			match(EOF);
 			 for (Integer j: labelRef.keySet()) 
 											code[j]=labelDef.get(labelRef.get(j)); 
+										  code = Arrays.copyOf(code, i);
+										  sourceMap = Arrays.copyOf(sourceMap, i);
 										
 			}
 		}
@@ -192,6 +218,7 @@ public class SVMParser extends Parser {
 		public TerminalNode BRANCH() { return getToken(SVMParser.BRANCH, 0); }
 		public TerminalNode BRANCHEQ() { return getToken(SVMParser.BRANCHEQ, 0); }
 		public TerminalNode BRANCHLESSEQ() { return getToken(SVMParser.BRANCHLESSEQ, 0); }
+		public TerminalNode BRANCHGREATEREQ() { return getToken(SVMParser.BRANCHGREATEREQ, 0); }
 		public TerminalNode JS() { return getToken(SVMParser.JS, 0); }
 		public TerminalNode LOADRA() { return getToken(SVMParser.LOADRA, 0); }
 		public TerminalNode STORERA() { return getToken(SVMParser.STORERA, 0); }
@@ -204,6 +231,19 @@ public class SVMParser extends Parser {
 		public TerminalNode STOREHP() { return getToken(SVMParser.STOREHP, 0); }
 		public TerminalNode PRINT() { return getToken(SVMParser.PRINT, 0); }
 		public TerminalNode HALT() { return getToken(SVMParser.HALT, 0); }
+		public TerminalNode LOADWFP() { return getToken(SVMParser.LOADWFP, 0); }
+		public TerminalNode STOREWFP() { return getToken(SVMParser.STOREWFP, 0); }
+		public TerminalNode LOADWOFF() { return getToken(SVMParser.LOADWOFF, 0); }
+		public TerminalNode HEAPPUSH() { return getToken(SVMParser.HEAPPUSH, 0); }
+		public TerminalNode DUP() { return getToken(SVMParser.DUP, 0); }
+		public TerminalNode EQUAL() { return getToken(SVMParser.EQUAL, 0); }
+		public TerminalNode LESSEQ() { return getToken(SVMParser.LESSEQ, 0); }
+		public TerminalNode LESS() { return getToken(SVMParser.LESS, 0); }
+		public TerminalNode NOT() { return getToken(SVMParser.NOT, 0); }
+		public TerminalNode AND() { return getToken(SVMParser.AND, 0); }
+		public TerminalNode OR() { return getToken(SVMParser.OR, 0); }
+		public TerminalNode ALLOC() { return getToken(SVMParser.ALLOC, 0); }
+		public TerminalNode METHODCALL() { return getToken(SVMParser.METHODCALL, 0); }
 		public InstructionContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
@@ -227,7 +267,7 @@ public class SVMParser extends Parser {
 		InstructionContext _localctx = new InstructionContext(_ctx, getState());
 		enterRule(_localctx, 2, RULE_instruction);
 		try {
-			setState(69);
+			setState(103);
 			_errHandler.sync(this);
 			switch ( getInterpreter().adaptivePredict(_input,1,_ctx) ) {
 			case 1:
@@ -237,8 +277,8 @@ public class SVMParser extends Parser {
 				match(PUSH);
 				setState(14);
 				((InstructionContext)_localctx).n = match(INTEGER);
-				code[i++] = PUSH; 
-							              code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				emit(PUSH); 
+							              emit(Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null)));
 				}
 				break;
 			case 2:
@@ -248,8 +288,8 @@ public class SVMParser extends Parser {
 				match(PUSH);
 				setState(17);
 				((InstructionContext)_localctx).l = match(LABEL);
-				code[i++] = PUSH; 
-					    		             labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				emit(PUSH); 
+					    		             emitLabel((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
 				}
 				break;
 			case 3:
@@ -257,7 +297,7 @@ public class SVMParser extends Parser {
 				{
 				setState(19);
 				match(POP);
-				code[i++] = POP;
+				emit(POP);
 				}
 				break;
 			case 4:
@@ -265,7 +305,7 @@ public class SVMParser extends Parser {
 				{
 				setState(21);
 				match(ADD);
-				code[i++] = ADD;
+				emit(ADD);
 				}
 				break;
 			case 5:
@@ -273,7 +313,7 @@ public class SVMParser extends Parser {
 				{
 				setState(23);
 				match(SUB);
-				code[i++] = SUB;
+				emit(SUB);
 				}
 				break;
 			case 6:
@@ -281,7 +321,7 @@ public class SVMParser extends Parser {
 				{
 				setState(25);
 				match(MULT);
-				code[i++] = MULT;
+				emit(MULT);
 				}
 				break;
 			case 7:
@@ -289,7 +329,7 @@ public class SVMParser extends Parser {
 				{
 				setState(27);
 				match(DIV);
-				code[i++] = DIV;
+				emit(DIV);
 				}
 				break;
 			case 8:
@@ -297,7 +337,7 @@ public class SVMParser extends Parser {
 				{
 				setState(29);
 				match(STOREW);
-				code[i++] = STOREW;
+				emit(STOREW);
 				}
 				break;
 			case 9:
@@ -305,7 +345,7 @@ public class SVMParser extends Parser {
 				{
 				setState(31);
 				match(LOADW);
-				code[i++] = LOADW;
+				emit(LOADW);
 				}
 				break;
 			case 10:
@@ -325,8 +365,8 @@ public class SVMParser extends Parser {
 				match(BRANCH);
 				setState(37);
 				((InstructionContext)_localctx).l = match(LABEL);
-				code[i++] = BRANCH;
-				                       labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				emit(BRANCH);
+				                       emitLabel((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
 				}
 				break;
 			case 12:
@@ -336,8 +376,8 @@ public class SVMParser extends Parser {
 				match(BRANCHEQ);
 				setState(40);
 				((InstructionContext)_localctx).l = match(LABEL);
-				code[i++] = BRANCHEQ;
-				                        labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				emit(BRANCHEQ);
+				                        emitLabel((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
 				}
 				break;
 			case 13:
@@ -347,104 +387,234 @@ public class SVMParser extends Parser {
 				match(BRANCHLESSEQ);
 				setState(43);
 				((InstructionContext)_localctx).l = match(LABEL);
-				code[i++] = BRANCHLESSEQ;
-				                          labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				emit(BRANCHLESSEQ);
+				                          emitLabel((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
 				}
 				break;
 			case 14:
 				enterOuterAlt(_localctx, 14);
 				{
 				setState(45);
-				match(JS);
-				code[i++] = JS;
+				match(BRANCHGREATEREQ);
+				setState(46);
+				((InstructionContext)_localctx).l = match(LABEL);
+				emit(BRANCHGREATEREQ);
+				                             emitLabel((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
 				}
 				break;
 			case 15:
 				enterOuterAlt(_localctx, 15);
 				{
-				setState(47);
-				match(LOADRA);
-				code[i++] = LOADRA;
+				setState(48);
+				match(JS);
+				emit(JS);
 				}
 				break;
 			case 16:
 				enterOuterAlt(_localctx, 16);
 				{
-				setState(49);
-				match(STORERA);
-				code[i++] = STORERA;
+				setState(50);
+				match(LOADRA);
+				emit(LOADRA);
 				}
 				break;
 			case 17:
 				enterOuterAlt(_localctx, 17);
 				{
-				setState(51);
-				match(LOADTM);
-				code[i++] = LOADTM;
+				setState(52);
+				match(STORERA);
+				emit(STORERA);
 				}
 				break;
 			case 18:
 				enterOuterAlt(_localctx, 18);
 				{
-				setState(53);
-				match(STORETM);
-				code[i++] = STORETM;
+				setState(54);
+				match(LOADTM);
+				emit(LOADTM);
 				}
 				break;
 			case 19:
 				enterOuterAlt(_localctx, 19);
 				{
-				setState(55);
-				match(LOADFP);
-				code[i++] = LOADFP;
+				setState(56);
+				match(STORETM);
+				emit(STORETM);
 				}
 				break;
 			case 20:
 				enterOuterAlt(_localctx, 20);
 				{
-				setState(57);
-				match(STOREFP);
-				code[i++] = STOREFP;
+				setState(58);
+				match(LOADFP);
+				emit(LOADFP);
 				}
 				break;
 			case 21:
 				enterOuterAlt(_localctx, 21);
 				{
-				setState(59);
-				match(COPYFP);
-				code[i++] = COPYFP;
+				setState(60);
+				match(STOREFP);
+				emit(STOREFP);
 				}
 				break;
 			case 22:
 				enterOuterAlt(_localctx, 22);
 				{
-				setState(61);
-				match(LOADHP);
-				code[i++] = LOADHP;
+				setState(62);
+				match(COPYFP);
+				emit(COPYFP);
 				}
 				break;
 			case 23:
 				enterOuterAlt(_localctx, 23);
 				{
-				setState(63);
-				match(STOREHP);
-				code[i++] = STOREHP;
+				setState(64);
+				match(LOADHP);
+				emit(LOADHP);
 				}
 				break;
 			case 24:
 				enterOuterAlt(_localctx, 24);
 				{
-				setState(65);
-				match(PRINT);
-				code[i++] = PRINT;
+				setState(66);
+				match(STOREHP);
+				emit(STOREHP);
 				}
 				break;
 			case 25:
 				enterOuterAlt(_localctx, 25);
 				{
-				setState(67);
+				setState(68);
+				match(PRINT);
+				emit(PRINT);
+				}
+				break;
+			case 26:
+				enterOuterAlt(_localctx, 26);
+				{
+				setState(70);
 				match(HALT);
-				code[i++] = HALT;
+				emit(HALT);
+				}
+				break;
+			case 27:
+				enterOuterAlt(_localctx, 27);
+				{
+				setState(72);
+				match(LOADWFP);
+				setState(73);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				emit(LOADWFP);
+					                     emit(Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null)));
+				}
+				break;
+			case 28:
+				enterOuterAlt(_localctx, 28);
+				{
+				setState(75);
+				match(STOREWFP);
+				setState(76);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				emit(STOREWFP);
+					                      emit(Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null)));
+				}
+				break;
+			case 29:
+				enterOuterAlt(_localctx, 29);
+				{
+				setState(78);
+				match(LOADWOFF);
+				setState(79);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				emit(LOADWOFF);
+					                      emit(Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null)));
+				}
+				break;
+			case 30:
+				enterOuterAlt(_localctx, 30);
+				{
+				setState(81);
+				match(HEAPPUSH);
+				emit(HEAPPUSH);
+				}
+				break;
+			case 31:
+				enterOuterAlt(_localctx, 31);
+				{
+				setState(83);
+				match(DUP);
+				emit(DUP);
+				}
+				break;
+			case 32:
+				enterOuterAlt(_localctx, 32);
+				{
+				setState(85);
+				match(EQUAL);
+				emit(EQUAL);
+				}
+				break;
+			case 33:
+				enterOuterAlt(_localctx, 33);
+				{
+				setState(87);
+				match(LESSEQ);
+				emit(LESSEQ);
+				}
+				break;
+			case 34:
+				enterOuterAlt(_localctx, 34);
+				{
+				setState(89);
+				match(LESS);
+				emit(LESS);
+				}
+				break;
+			case 35:
+				enterOuterAlt(_localctx, 35);
+				{
+				setState(91);
+				match(NOT);
+				emit(NOT);
+				}
+				break;
+			case 36:
+				enterOuterAlt(_localctx, 36);
+				{
+				setState(93);
+				match(AND);
+				emit(AND);
+				}
+				break;
+			case 37:
+				enterOuterAlt(_localctx, 37);
+				{
+				setState(95);
+				match(OR);
+				emit(OR);
+				}
+				break;
+			case 38:
+				enterOuterAlt(_localctx, 38);
+				{
+				setState(97);
+				match(ALLOC);
+				setState(98);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				emit(ALLOC);
+					                     emit(Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null)));
+				}
+				break;
+			case 39:
+				enterOuterAlt(_localctx, 39);
+				{
+				setState(100);
+				match(METHODCALL);
+				setState(101);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				emit(METHODCALL);
+					                          emit(Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null)));
 				}
 				break;
 			}
@@ -461,9 +631,15 @@ public class SVMParser extends Parser {
 	}
 
 	public static final String _serializedATN =
-		"\u0004\u0001\u001dH\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0001"+
-		"\u0000\u0005\u0000\u0006\b\u0000\n\u0000\f\u0000\t\t\u0000\u0001\u0000"+
-		"\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0004\u0001+j\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0001\u0000"+
+		"\u0005\u0000\u0006\b\u0000\n\u0000\f\u0000\t\t\u0000\u0001\u0000\u0001"+
+		"\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
@@ -472,48 +648,65 @@ public class SVMParser extends Parser {
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
-		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0003\u0001F\b\u0001"+
-		"\u0001\u0001\u0000\u0000\u0002\u0000\u0002\u0000\u0000^\u0000\u0007\u0001"+
-		"\u0000\u0000\u0000\u0002E\u0001\u0000\u0000\u0000\u0004\u0006\u0003\u0002"+
-		"\u0001\u0000\u0005\u0004\u0001\u0000\u0000\u0000\u0006\t\u0001\u0000\u0000"+
-		"\u0000\u0007\u0005\u0001\u0000\u0000\u0000\u0007\b\u0001\u0000\u0000\u0000"+
-		"\b\n\u0001\u0000\u0000\u0000\t\u0007\u0001\u0000\u0000\u0000\n\u000b\u0005"+
-		"\u0000\u0000\u0001\u000b\f\u0006\u0000\uffff\uffff\u0000\f\u0001\u0001"+
-		"\u0000\u0000\u0000\r\u000e\u0005\u0001\u0000\u0000\u000e\u000f\u0005\u001a"+
-		"\u0000\u0000\u000fF\u0006\u0001\uffff\uffff\u0000\u0010\u0011\u0005\u0001"+
-		"\u0000\u0000\u0011\u0012\u0005\u0019\u0000\u0000\u0012F\u0006\u0001\uffff"+
-		"\uffff\u0000\u0013\u0014\u0005\u0002\u0000\u0000\u0014F\u0006\u0001\uffff"+
-		"\uffff\u0000\u0015\u0016\u0005\u0003\u0000\u0000\u0016F\u0006\u0001\uffff"+
-		"\uffff\u0000\u0017\u0018\u0005\u0004\u0000\u0000\u0018F\u0006\u0001\uffff"+
-		"\uffff\u0000\u0019\u001a\u0005\u0005\u0000\u0000\u001aF\u0006\u0001\uffff"+
-		"\uffff\u0000\u001b\u001c\u0005\u0006\u0000\u0000\u001cF\u0006\u0001\uffff"+
-		"\uffff\u0000\u001d\u001e\u0005\u0007\u0000\u0000\u001eF\u0006\u0001\uffff"+
-		"\uffff\u0000\u001f \u0005\b\u0000\u0000 F\u0006\u0001\uffff\uffff\u0000"+
-		"!\"\u0005\u0019\u0000\u0000\"#\u0005\u0018\u0000\u0000#F\u0006\u0001\uffff"+
-		"\uffff\u0000$%\u0005\t\u0000\u0000%&\u0005\u0019\u0000\u0000&F\u0006\u0001"+
-		"\uffff\uffff\u0000\'(\u0005\n\u0000\u0000()\u0005\u0019\u0000\u0000)F"+
-		"\u0006\u0001\uffff\uffff\u0000*+\u0005\u000b\u0000\u0000+,\u0005\u0019"+
-		"\u0000\u0000,F\u0006\u0001\uffff\uffff\u0000-.\u0005\f\u0000\u0000.F\u0006"+
-		"\u0001\uffff\uffff\u0000/0\u0005\r\u0000\u00000F\u0006\u0001\uffff\uffff"+
-		"\u000012\u0005\u000e\u0000\u00002F\u0006\u0001\uffff\uffff\u000034\u0005"+
-		"\u000f\u0000\u00004F\u0006\u0001\uffff\uffff\u000056\u0005\u0010\u0000"+
-		"\u00006F\u0006\u0001\uffff\uffff\u000078\u0005\u0011\u0000\u00008F\u0006"+
-		"\u0001\uffff\uffff\u00009:\u0005\u0012\u0000\u0000:F\u0006\u0001\uffff"+
-		"\uffff\u0000;<\u0005\u0013\u0000\u0000<F\u0006\u0001\uffff\uffff\u0000"+
-		"=>\u0005\u0014\u0000\u0000>F\u0006\u0001\uffff\uffff\u0000?@\u0005\u0015"+
-		"\u0000\u0000@F\u0006\u0001\uffff\uffff\u0000AB\u0005\u0016\u0000\u0000"+
-		"BF\u0006\u0001\uffff\uffff\u0000CD\u0005\u0017\u0000\u0000DF\u0006\u0001"+
-		"\uffff\uffff\u0000E\r\u0001\u0000\u0000\u0000E\u0010\u0001\u0000\u0000"+
-		"\u0000E\u0013\u0001\u0000\u0000\u0000E\u0015\u0001\u0000\u0000\u0000E"+
-		"\u0017\u0001\u0000\u0000\u0000E\u0019\u0001\u0000\u0000\u0000E\u001b\u0001"+
-		"\u0000\u0000\u0000E\u001d\u0001\u0000\u0000\u0000E\u001f\u0001\u0000\u0000"+
-		"\u0000E!\u0001\u0000\u0000\u0000E$\u0001\u0000\u0000\u0000E\'\u0001\u0000"+
-		"\u0000\u0000E*\u0001\u0000\u0000\u0000E-\u0001\u0000\u0000\u0000E/\u0001"+
-		"\u0000\u0000\u0000E1\u0001\u0000\u0000\u0000E3\u0001\u0000\u0000\u0000"+
-		"E5\u0001\u0000\u0000\u0000E7\u0001\u0000\u0000\u0000E9\u0001\u0000\u0000"+
-		"\u0000E;\u0001\u0000\u0000\u0000E=\u0001\u0000\u0000\u0000E?\u0001\u0000"+
-		"\u0000\u0000EA\u0001\u0000\u0000\u0000EC\u0001\u0000\u0000\u0000F\u0003"+
-		"\u0001\u0000\u0000\u0000\u0002\u0007E";
+		"\u0001\u0001\u0001\u0003\u0001h\b\u0001\u0001\u0001\u0000\u0000\u0002"+
+		"\u0000\u0002\u0000\u0000\u008e\u0000\u0007\u0001\u0000\u0000\u0000\u0002"+
+		"g\u0001\u0000\u0000\u0000\u0004\u0006\u0003\u0002\u0001\u0000\u0005\u0004"+
+		"\u0001\u0000\u0000\u0000\u0006\t\u0001\u0000\u0000\u0000\u0007\u0005\u0001"+
+		"\u0000\u0000\u0000\u0007\b\u0001\u0000\u0000\u0000\b\n\u0001\u0000\u0000"+
+		"\u0000\t\u0007\u0001\u0000\u0000\u0000\n\u000b\u0005\u0000\u0000\u0001"+
+		"\u000b\f\u0006\u0000\uffff\uffff\u0000\f\u0001\u0001\u0000\u0000\u0000"+
+		"\r\u000e\u0005\u0001\u0000\u0000\u000e\u000f\u0005(\u0000\u0000\u000f"+
+		"h\u0006\u0001\uffff\uffff\u0000\u0010\u0011\u0005\u0001\u0000\u0000\u0011"+
+		"\u0012\u0005\'\u0000\u0000\u0012h\u0006\u0001\uffff\uffff\u0000\u0013"+
+		"\u0014\u0005\u0002\u0000\u0000\u0014h\u0006\u0001\uffff\uffff\u0000\u0015"+
+		"\u0016\u0005\u0003\u0000\u0000\u0016h\u0006\u0001\uffff\uffff\u0000\u0017"+
+		"\u0018\u0005\u0004\u0000\u0000\u0018h\u0006\u0001\uffff\uffff\u0000\u0019"+
+		"\u001a\u0005\u0005\u0000\u0000\u001ah\u0006\u0001\uffff\uffff\u0000\u001b"+
+		"\u001c\u0005\u0006\u0000\u0000\u001ch\u0006\u0001\uffff\uffff\u0000\u001d"+
+		"\u001e\u0005\u0007\u0000\u0000\u001eh\u0006\u0001\uffff\uffff\u0000\u001f"+
+		" \u0005\b\u0000\u0000 h\u0006\u0001\uffff\uffff\u0000!\"\u0005\'\u0000"+
+		"\u0000\"#\u0005&\u0000\u0000#h\u0006\u0001\uffff\uffff\u0000$%\u0005\t"+
+		"\u0000\u0000%&\u0005\'\u0000\u0000&h\u0006\u0001\uffff\uffff\u0000\'("+
+		"\u0005\n\u0000\u0000()\u0005\'\u0000\u0000)h\u0006\u0001\uffff\uffff\u0000"+
+		"*+\u0005\u000b\u0000\u0000+,\u0005\'\u0000\u0000,h\u0006\u0001\uffff\uffff"+
+		"\u0000-.\u0005\f\u0000\u0000./\u0005\'\u0000\u0000/h\u0006\u0001\uffff"+
+		"\uffff\u000001\u0005\r\u0000\u00001h\u0006\u0001\uffff\uffff\u000023\u0005"+
+		"\u000e\u0000\u00003h\u0006\u0001\uffff\uffff\u000045\u0005\u000f\u0000"+
+		"\u00005h\u0006\u0001\uffff\uffff\u000067\u0005\u0010\u0000\u00007h\u0006"+
+		"\u0001\uffff\uffff\u000089\u0005\u0011\u0000\u00009h\u0006\u0001\uffff"+
+		"\uffff\u0000:;\u0005\u0012\u0000\u0000;h\u0006\u0001\uffff\uffff\u0000"+
+		"<=\u0005\u0013\u0000\u0000=h\u0006\u0001\uffff\uffff\u0000>?\u0005\u0014"+
+		"\u0000\u0000?h\u0006\u0001\uffff\uffff\u0000@A\u0005\u0015\u0000\u0000"+
+		"Ah\u0006\u0001\uffff\uffff\u0000BC\u0005\u0016\u0000\u0000Ch\u0006\u0001"+
+		"\uffff\uffff\u0000DE\u0005\u0017\u0000\u0000Eh\u0006\u0001\uffff\uffff"+
+		"\u0000FG\u0005\u0018\u0000\u0000Gh\u0006\u0001\uffff\uffff\u0000HI\u0005"+
+		"\u0019\u0000\u0000IJ\u0005(\u0000\u0000Jh\u0006\u0001\uffff\uffff\u0000"+
+		"KL\u0005\u001a\u0000\u0000LM\u0005(\u0000\u0000Mh\u0006\u0001\uffff\uffff"+
+		"\u0000NO\u0005\u001b\u0000\u0000OP\u0005(\u0000\u0000Ph\u0006\u0001\uffff"+
+		"\uffff\u0000QR\u0005\u001c\u0000\u0000Rh\u0006\u0001\uffff\uffff\u0000"+
+		"ST\u0005\u001d\u0000\u0000Th\u0006\u0001\uffff\uffff\u0000UV\u0005\u001e"+
+		"\u0000\u0000Vh\u0006\u0001\uffff\uffff\u0000WX\u0005\u001f\u0000\u0000"+
+		"Xh\u0006\u0001\uffff\uffff\u0000YZ\u0005 \u0000\u0000Zh\u0006\u0001\uffff"+
+		"\uffff\u0000[\\\u0005!\u0000\u0000\\h\u0006\u0001\uffff\uffff\u0000]^"+
+		"\u0005\"\u0000\u0000^h\u0006\u0001\uffff\uffff\u0000_`\u0005#\u0000\u0000"+
+		"`h\u0006\u0001\uffff\uffff\u0000ab\u0005$\u0000\u0000bc\u0005(\u0000\u0000"+
+		"ch\u0006\u0001\uffff\uffff\u0000de\u0005%\u0000\u0000ef\u0005(\u0000\u0000"+
+		"fh\u0006\u0001\uffff\uffff\u0000g\r\u0001\u0000\u0000\u0000g\u0010\u0001"+
+		"\u0000\u0000\u0000g\u0013\u0001\u0000\u0000\u0000g\u0015\u0001\u0000\u0000"+
+		"\u0000g\u0017\u0001\u0000\u0000\u0000g\u0019\u0001\u0000\u0000\u0000g"+
+		"\u001b\u0001\u0000\u0000\u0000g\u001d\u0001\u0000\u0000\u0000g\u001f\u0001"+
+		"\u0000\u0000\u0000g!\u0001\u0000\u0000\u0000g$\u0001\u0000\u0000\u0000"+
+		"g\'\u0001\u0000\u0000\u0000g*\u0001\u0000\u0000\u0000g-\u0001\u0000\u0000"+
+		"\u0000g0\u0001\u0000\u0000\u0000g2\u0001\u0000\u0000\u0000g4\u0001\u0000"+
+		"\u0000\u0000g6\u0001\u0000\u0000\u0000g8\u0001\u0000\u0000\u0000g:\u0001"+
+		"\u0000\u0000\u0000g<\u0001\u0000\u0000\u0000g>\u0001\u0000\u0000\u0000"+
+		"g@\u0001\u0000\u0000\u0000gB\u0001\u0000\u0000\u0000gD\u0001\u0000\u0000"+
+		"\u0000gF\u0001\u0000\u0000\u0000gH\u0001\u0000\u0000\u0000gK\u0001\u0000"+
+		"\u0000\u0000gN\u0001\u0000\u0000\u0000gQ\u0001\u0000\u0000\u0000gS\u0001"+
+		"\u0000\u0000\u0000gU\u0001\u0000\u0000\u0000gW\u0001\u0000\u0000\u0000"+
+		"gY\u0001\u0000\u0000\u0000g[\u0001\u0000\u0000\u0000g]\u0001\u0000\u0000"+
+		"\u0000g_\u0001\u0000\u0000\u0000ga\u0001\u0000\u0000\u0000gd\u0001\u0000"+
+		"\u0000\u0000h\u0003\u0001\u0000\u0000\u0000\u0002\u0007g";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
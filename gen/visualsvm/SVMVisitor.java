@@ -1,25 +0,0 @@
-// Generated from /Users/giggino/Desktop/compiler/fool/src/visualsvm/SVM.g4 by ANTLR 4.13.1
-package visualsvm;
-import org.antlr.v4.runtime.tree.ParseTreeVisitor;
-
-/**
- * This interface defines a complete generic visitor for a parse tree produced
- * by {@link SVMParser}.
- *
- * @param <T> The return type of the visit operation. Use {@link Void} for
- * operations with no return type.
- */
-public interface SVMVisitor<T> extends ParseTreeVisitor<T> {
-	/**
-	 * Visit a parse tree produced by {@link SVMParser#assembly}.
-	 * @param ctx the parse tree
-	 * @return the visitor result
-	 */
-	T visitAssembly(SVMParser.AssemblyContext ctx);
-	/**
-	 * Visit a parse tree produced by {@link SVMParser#instruction}.
-	 * @param ctx the parse tree
-	 * @return the visitor result
-	 */
-	T visitInstruction(SVMParser.InstructionContext ctx);
-}
\ No newline at end of file
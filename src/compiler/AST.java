@@ -39,7 +39,8 @@ public class AST {
         final TypeNode retType;
         final List<ParNode> parlist;
         final List<DecNode> declist;
-        final Node exp;
+        Node exp; // replaced by the optimisation passes
+        STentry entry; // set by SymbolTableASTVisitor
 
         FunNode(String i, TypeNode rt, List<ParNode> pl, List<DecNode> dl, Node e) {
             id = i;
@@ -73,7 +74,7 @@ public class AST {
 
     public static class VarNode extends DecNode {
         final String id;
-        final Node exp;
+        Node exp; // replaced by the optimisation passes
 
         VarNode(String i, TypeNode t, Node v) {
             id = i;
@@ -270,6 +271,7 @@ public class AST {
         final List<Node> arglist;
         STentry entry;
         int nl;
+        MethodNode target; // method always called, set by ClassHierarchyAnalysis (null if not known)
 
         CallNode(String i, List<Node> p) {
             id = i;
@@ -394,7 +396,7 @@ public class AST {
         final TypeNode retType;
         final List<ParNode> parlist;
         final List<DecNode> declist;
-        final Node exp;
+        Node exp; // replaced by the optimisation passes
         int offset = 0;
         String label;
 
@@ -419,6 +421,7 @@ public class AST {
         STentry entry;
         STentry methodEntry;
         int nl;
+        MethodNode target; // method always called, set by ClassHierarchyAnalysis (null if not known)
 
         ClassCallNode(String i, String m, List<Node> p) {
             id = i;
@@ -432,6 +435,23 @@ public class AST {
         }
     }
 
+    // field of the object held by a variable: produced by InliningASTVisitor, which replaces
+    // the fields used in a method body with the fields of the receiver of the call
+    public static class FieldAccessNode extends Node {
+        final IdNode object;
+        final int offset;
+
+        FieldAccessNode(IdNode o, int off) {
+            object = o;
+            offset = off;
+        }
+
+        @Override
+        public <S, E extends Exception> S accept(BaseASTVisitor<S, E> visitor) throws E {
+            return visitor.visitNode(this);
+        }
+    }
+
     public static class NewNode extends Node {
 
         final String id;
@@ -0,0 +1,243 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+import compiler.exc.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Whole-program class hierarchy analysis, run after type checking: a method call whose
+// receiver can only be an object of a class declaring a method that no other class overrides
+// always reaches that MethodNode, so it is bound to it (field "target") and compiled as a
+// direct call to its label, without loading the dispatch table (the object is still checked
+// not to be null).
+// ClassNode has no superclass (EXTENDS is not part of the AST), so every class is a leaf of
+// the hierarchy and the static class of the receiver is also its dynamic class.
+public class ClassHierarchyAnalysis extends BaseASTVisitor<Void, VoidException> {
+
+    public int devirtualized = 0; // number of call sites bound to their method
+
+    private final Map<String, Map<String, MethodNode>> classes = new HashMap<>(); // class id -> method id -> method
+    private Map<String, MethodNode> currentClass; // methods of the class being visited, if any
+
+    ClassHierarchyAnalysis() {}
+
+    ClassHierarchyAnalysis(boolean debug) {
+        super(false, debug);
+    } //enables print for debugging
+
+    // the method declared with this id by the class, null if it cannot be bound statically
+    private MethodNode resolve(String classId, String methodId) {
+        Map<String, MethodNode> methods = classes.get(classId);
+        return methods == null ? null : methods.get(methodId);
+    }
+
+    @Override
+    public Void visitNode(ProgLetInNode n) {
+        if (print) printNode(n);
+        for (Node dec : n.declist) {
+            if (dec instanceof ClassNode) {
+                Map<String, MethodNode> methods = new HashMap<>();
+                for (MethodNode m : ((ClassNode) dec).methods) methods.put(m.id, m);
+                classes.put(((ClassNode) dec).id, methods);
+            }
+        }
+        for (Node dec : n.declist) visit(dec);
+        visit(n.exp);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(ProgNode n) {
+        if (print) printNode(n);
+        visit(n.exp);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(FunNode n) {
+        if (print) printNode(n, n.id);
+        for (Node dec : n.declist) visit(dec);
+        visit(n.exp);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(VarNode n) {
+        if (print) printNode(n, n.id);
+        visit(n.exp);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(PrintNode n) {
+        if (print) printNode(n);
+        visit(n.exp);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(IfNode n) {
+        if (print) printNode(n);
+        visit(n.cond);
+        visit(n.th);
+        visit(n.el);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(EqualNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(TimesNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(PlusNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(GreaterEqualNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(LessEqualNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(NotNode n) {
+        if (print) printNode(n);
+        visit(n.node);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(MinusNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(OrNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(DivNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(AndNode n) {
+        if (print) printNode(n);
+        visit(n.left);
+        visit(n.right);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(CallNode n) {
+        if (print) printNode(n, n.id);
+        for (Node arg : n.arglist) visit(arg);
+        if (n.entry.type instanceof MethodTypeNode && currentClass != null) { // method of the enclosing class
+            n.target = currentClass.get(n.id);
+            if (n.target != null) devirtualized++;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitNode(IdNode n) {
+        if (print) printNode(n, n.id);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(BoolNode n) {
+        if (print) printNode(n, n.val.toString());
+        return null;
+    }
+
+    @Override
+    public Void visitNode(IntNode n) {
+        if (print) printNode(n, n.val.toString());
+        return null;
+    }
+
+    @Override
+    public Void visitNode(ClassNode n) {
+        if (print) printNode(n, n.id);
+        currentClass = classes.get(n.id);
+        for (MethodNode m : n.methods) visit(m);
+        currentClass = null;
+        return null;
+    }
+
+    @Override
+    public Void visitNode(MethodNode n) {
+        if (print) printNode(n, n.id);
+        for (Node dec : n.declist) visit(dec);
+        visit(n.exp);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(ClassCallNode n) {
+        if (print) printNode(n, n.id + "." + n.methodId);
+        for (Node arg : n.arglist) visit(arg);
+        if (n.entry.type instanceof RefTypeNode) {
+            n.target = resolve(((RefTypeNode) n.entry.type).id, n.methodId);
+            if (n.target != null) devirtualized++;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitNode(NewNode n) {
+        if (print) printNode(n, n.id);
+        for (Node arg : n.arglist) visit(arg);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(FieldAccessNode n) {
+        if (print) printNode(n, n.object.id);
+        return null;
+    }
+
+    @Override
+    public Void visitNode(EmptyNode n) {
+        if (print) printNode(n);
+        return null;
+    }
+}
@@ -5,467 +5,656 @@ import compiler.lib.*;
 import compiler.exc.*;
 import svm.ExecuteVM;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
-import static compiler.lib.FOOLlib.*;
+// visitNode(n) appends the code of node n to the current instruction buffer, instead of
+// returning it as a String: each instruction is written once, so code generation is linear
+// in the size of the program. Code of functions and methods is written to a separate buffer
+// and then moved into the CompilationContext, which collects it to be placed after "halt".
+public class CodeGenerationASTVisitor extends BaseASTVisitor<Void, VoidException> {
 
-public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidException> {
 
+    private final CompilationContext context;
+    private List<String> code = new ArrayList<>(); // current instruction buffer
+    private final Map<MethodNode, String> methodLabels = new HashMap<>(); // also for methods not generated yet
+    private final Map<STentry, String> functionLabels = new HashMap<>(); // functions visible from the code being generated
+    private Map<Integer, Integer> frameCache = new HashMap<>(); // levels up the static chain -> offset of the local slot
+    private boolean frameSlots = true; // address the slots of the current frame with lwfp/swfp
 
-    CodeGenerationASTVisitor() {
+    CodeGenerationASTVisitor(CompilationContext c) {
+        context = c;
     }
 
-    CodeGenerationASTVisitor(boolean debug) {
+    CodeGenerationASTVisitor(CompilationContext c, boolean debug) {
         super(false, debug);
+        context = c;
     } //enables print for debugging
 
+    // with false, parameters and local declarations of the current frame are accessed with
+    // "lfp, push k, add, lw/sw" (which PeepholeOptimizer may still fuse) instead of "lwfp k"/"swfp k"
+    void setFrameSlots(boolean frameSlots) {
+        this.frameSlots = frameSlots;
+    }
+
+    // generated code, one instruction (or label) per element
+    public List<String> getCode() {
+        return code;
+    }
+
+    private void emit(String... instructions) {
+        Collections.addAll(code, instructions);
+    }
+
+    // label of the method code, chosen when the method or a direct call to it is generated first
+    private String methodLabel(MethodNode m) {
+        return methodLabels.computeIfAbsent(m, k -> context.freshFunLabel());
+    }
+
+    // pushes the word at offset k in the current frame
+    private void emitLoadSlot(int k) {
+        if (frameSlots) emit("lwfp " + k);
+        else emit("lfp", "push " + k, "add", "lw");
+    }
+
+    // pops a word and writes it at offset k in the current frame
+    private void emitStoreSlot(int k) {
+        if (frameSlots) emit("swfp " + k);
+        else emit("lfp", "push " + k, "add", "sw");
+    }
+
+    // pushes the address of the frame "hops" levels up the static chain: loaded from a slot of the
+    // current frame if the prologue cached it there, otherwise by following the static chain
+    private void emitFrame(int hops) {
+        Integer slot = frameCache.get(hops);
+        if (slot != null) {
+            emitLoadSlot(slot);
+            return;
+        }
+        emit("lfp");
+        emitRepeated("lw", hops); // by following the static chain (of Access Links)
+    }
+
+    // caches in local slots, after the local declarations, the frames at two or more levels up the
+    // static chain that the body expression uses, so that each access costs the same at any nesting
+    // depth; returns the number of slots
+    private int cacheOuterFrames(Node exp, int decs) {
+        SortedSet<Integer> levels = new TreeSet<>();
+        collectHops(exp, levels);
+        int previous = 0;
+        for (int hops : levels.tailSet(2)) {
+            if (previous == 0) emit("lfp");
+            else emitLoadSlot(frameCache.get(previous)); // start from the nearest cached frame
+            emitRepeated("lw", hops - previous);
+            frameCache.put(hops, -2 - decs - frameCache.size());
+            previous = hops;
+        }
+        return frameCache.size();
+    }
+
+    private static void collectHops(Node n, Set<Integer> levels) {
+        if (n instanceof IdNode) levels.add(((IdNode) n).nl - ((IdNode) n).entry.nl);
+        if (n instanceof CallNode) levels.add(((CallNode) n).nl - ((CallNode) n).entry.nl);
+        if (n instanceof ClassCallNode) levels.add(((ClassCallNode) n).nl - ((ClassCallNode) n).entry.nl);
+        if (n instanceof FieldAccessNode) collectHops(((FieldAccessNode) n).object, levels);
+        for (Node c : RewritingASTVisitor.children(n)) collectHops(c, levels);
+    }
+
+    // stops the program if the object on top of the stack is null, by loading its dispatch pointer
+    // (for direct method calls, which do not read the dispatch table)
+    private void emitNullCheck() {
+        emit(
+                "stm", "ltm", "ltm", // duplicate the object
+                "lw", // load its dispatch pointer (null is not a valid address)
+                "pop"
+        );
+    }
+
+    // emits the same instruction n times
+    private void emitRepeated(String instruction, int n) {
+        for (int i = 0; i < n; i++) code.add(instruction);
+    }
+
     @Override
-    public String visitNode(ProgLetInNode n) {
+    public Void visitNode(ProgLetInNode n) {
         if (print) printNode(n);
-        String declCode = null;
-        for (Node dec : n.declist) declCode = nlJoin(declCode, visit(dec));
-        return nlJoin(
-                "push 0",
-                declCode, // generate code for declarations (allocation)
-                visit(n.exp),
-                "halt",
-                getCode()
-        );
+        emit("push 0");
+        for (Node dec : n.declist) visit(dec); // generate code for declarations (allocation)
+        visit(n.exp);
+        emit("halt");
+        code.addAll(context.getCode());
+        return null;
     }
 
     @Override
-    public String visitNode(ProgNode n) {
+    public Void visitNode(ProgNode n) {
         if (print) printNode(n);
-        return nlJoin(
-                visit(n.exp),
-                "halt"
-        );
+        visit(n.exp);
+        emit("halt");
+        return null;
     }
 
     @Override
-    public String visitNode(FunNode n) {
+    public Void visitNode(FunNode n) {
         if (print) printNode(n, n.id);
-        String declCode = null, popDecl = null, popParl = null;
-        for (Node dec : n.declist) {
-            declCode = nlJoin(declCode, visit(dec));
-            popDecl = nlJoin(popDecl, "pop");
-        }
-        for (int i = 0; i < n.parlist.size(); i++) popParl = nlJoin(popParl, "pop");
-        String funl = freshFunLabel();
-        putCode(
-                nlJoin(
-                        funl + ":",
-                        "cfp", // set $fp to $sp value
-                        "lra", // load $ra value
-                        declCode, // generate code for local declarations (they use the new $fp!!!)
-                        visit(n.exp), // generate code for function body expression
-                        "stm", // set $tm to popped value (function result)
-                        popDecl, // remove local declarations from stack
-                        "sra", // set $ra to popped value
-                        "pop", // remove Access Link from stack
-                        popParl, // remove parameters from stack
-                        "sfp", // set $fp to popped value (Control Link)
-                        "ltm", // load $tm value (function result)
-                        "lra", // load $ra value
-                        "js"  // jump to to popped address
-                )
+        String funl = context.freshFunLabel();
+        functionLabels.put(n.entry, funl); // before the body, which may call the function in tail position
+        List<String> callerCode = code;
+        Map<Integer, Integer> callerCache = frameCache;
+        code = new ArrayList<>();
+        frameCache = new HashMap<>();
+        emit(
+                funl + ":",
+                "cfp", // set $fp to $sp value
+                "lra" // load $ra value
+        );
+        for (Node dec : n.declist) visit(dec); // generate code for local declarations (they use the new $fp!!!)
+        int locals = n.declist.size() + cacheOuterFrames(n.exp, n.declist.size());
+        visitTail(n.exp, n.parlist.size(), locals); // generate code for function body expression
+        emit("stm"); // set $tm to popped value (function result)
+        emitRepeated("pop", locals); // remove local declarations (and cached frames) from stack
+        emit(
+                "sra", // set $ra to popped value
+                "pop" // remove Access Link from stack
         );
-        return "push " + funl;
+        emitRepeated("pop", n.parlist.size()); // remove parameters from stack
+        emit(
+                "sfp", // set $fp to popped value (Control Link)
+                "ltm", // load $tm value (function result)
+                "lra", // load $ra value
+                "js"  // jump to to popped address
+        );
+        context.putCode(code);
+        code = callerCode;
+        frameCache = callerCache;
+        emit("push " + funl);
+        return null;
     }
 
     @Override
-    public String visitNode(VarNode n) {
+    public Void visitNode(VarNode n) {
         if (print) printNode(n, n.id);
-        return visit(n.exp);
+        visit(n.exp);
+        return null;
     }
 
     @Override
-    public String visitNode(PrintNode n) {
+    public Void visitNode(PrintNode n) {
         if (print) printNode(n);
-        return nlJoin(
-                visit(n.exp),
-                "print"
-        );
+        visit(n.exp);
+        emit("print");
+        return null;
     }
 
     @Override
-    public String visitNode(IfNode n) {
+    public Void visitNode(IfNode n) {
         if (print) {
             printNode(n);
         }
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        return nlJoin(
-                visit(n.cond),
-                "push 1",
-                "beq " + l1,
-                visit(n.el),
+        String l1 = context.freshLabel();
+        String l2 = context.freshLabel();
+        emitJumpIfTrue(n.cond, l1);
+        visit(n.el);
+        emit(
                 "b " + l2,
-                l1 + ":",
-                visit(n.th),
-                l2 + ":"
+                l1 + ":"
         );
+        visit(n.th);
+        emit(l2 + ":");
+        return null;
+    }
+
+    // generates the body expression of a function with the given number of parameters and local
+    // declarations: calls in tail position (the body, or a branch of an "if" in tail position)
+    // reuse the frame of the function, so that tail recursion runs in constant stack space
+    private void visitTail(Node n, int params, int decs) {
+        if (n instanceof IfNode) {
+            if (print) printNode(n);
+            String l1 = context.freshLabel();
+            String l2 = context.freshLabel();
+            emitJumpIfTrue(((IfNode) n).cond, l1);
+            visitTail(((IfNode) n).el, params, decs);
+            emit(
+                    "b " + l2,
+                    l1 + ":"
+            );
+            visitTail(((IfNode) n).th, params, decs);
+            emit(l2 + ":");
+        } else if (!tailCall(n, params, decs)) visit(n);
+    }
+
+    // generates a call to a statically known function or method that replaces the frame of the caller
+    // with the one of the callee: the callee gets the Control Link and the return address of the caller,
+    // so it returns directly to the caller's caller; false if n is not such a call
+    private boolean tailCall(Node n, int params, int decs) {
+        String label;
+        List<Node> args;
+        if (n instanceof CallNode && ((CallNode) n).target != null) {
+            label = methodLabel(((CallNode) n).target);
+            args = ((CallNode) n).arglist;
+        } else if (n instanceof CallNode && functionLabels.containsKey(((CallNode) n).entry)) {
+            label = functionLabels.get(((CallNode) n).entry);
+            args = ((CallNode) n).arglist;
+        } else if (n instanceof ClassCallNode && ((ClassCallNode) n).target != null) {
+            label = methodLabel(((ClassCallNode) n).target);
+            args = ((ClassCallNode) n).arglist;
+        } else return false;
+        if (n instanceof CallNode && ((CallNode) n).nl == ((CallNode) n).entry.nl)
+            return false; // function declared in the caller: its Access Link is the frame being replaced
+        int words = args.size() + 1; // arguments and Access Link
+        // they are written over the frame from the Control Link down, which must not reach
+        // the words themselves (pushed below the local declarations)
+        if (words > params + decs + 2) return false;
+        if (print) printNode(n);
+        for (int i = args.size() - 1; i >= 0; i--) {
+            visit(args.get(i)); // generate code for argument expressions in reversed order
+        }
+        if (n instanceof CallNode) {
+            emitFrame(((CallNode) n).nl - ((CallNode) n).entry.nl); // retrieve address of frame containing "id" declaration
+        } else {
+            emitFrame(((ClassCallNode) n).nl - ((ClassCallNode) n).entry.nl); // retrieve address of frame containing "id" declaration
+            emit(
+                    "push " + ((ClassCallNode) n).entry.offset, "add", // compute address of "id" declaration
+                    "lw" // load Access Link (the object)
+            );
+            emitNullCheck();
+        }
+        emitLoadSlot(-1); // load the return address of the caller
+        emit("sra"); // set $ra to popped value
+        for (int j = 0; j < words; j++) { // Access Link first, into the slot below the parameters of the callee
+            emitStoreSlot(params + 1 - words + j);
+        }
+        emitRepeated("pop", params + decs + 2 - words); // set $sp to the Access Link of the callee
+        emit("b " + label); // jump to the callee, keeping $ra
+        return true;
+    }
+
+    // a comparison used as a condition becomes a single conditional branch,
+    // without computing its boolean value first
+    private void emitJumpIfTrue(Node cond, String label) {
+        String branch = null;
+        Node left = null, right = null;
+        if (cond instanceof EqualNode) {
+            branch = "beq";
+            left = ((EqualNode) cond).left;
+            right = ((EqualNode) cond).right;
+        } else if (cond instanceof LessEqualNode) {
+            branch = "bleq";
+            left = ((LessEqualNode) cond).left;
+            right = ((LessEqualNode) cond).right;
+        } else if (cond instanceof GreaterEqualNode) {
+            branch = "bgeq";
+            left = ((GreaterEqualNode) cond).left;
+            right = ((GreaterEqualNode) cond).right;
+        }
+        if (branch != null) {
+            if (print) printNode(cond);
+            visit(left);
+            visit(right);
+            emit(branch + " " + label);
+        } else {
+            visit(cond);
+            emit(
+                    "push 1",
+                    "beq " + label
+            );
+        }
     }
 
     @Override
-    public String visitNode(EqualNode n) {
+    public Void visitNode(EqualNode n) {
         if (print) {
             printNode(n);
         }
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        return nlJoin(
-                visit(n.left),
-                visit(n.right),
-                "beq " + l1,
-                "push 0",
-                "b " + l2,
-                l1 + ":",
-                "push 1",
-                l2 + ":"
-        );
+        visit(n.left);
+        visit(n.right);
+        emit("eq");
+        return null;
     }
 
     @Override
-    public String visitNode(TimesNode n) {
+    public Void visitNode(TimesNode n) {
         if (print) printNode(n);
-        return nlJoin(
-                visit(n.left),
-                visit(n.right),
-                "mult"
-        );
+        visit(n.left);
+        visit(n.right);
+        emit("mult");
+        return null;
     }
 
     @Override
-    public String visitNode(PlusNode n) {
+    public Void visitNode(PlusNode n) {
         if (print) printNode(n);
-        return nlJoin(
-                visit(n.left),
-                visit(n.right),
-                "add"
-        );
+        visit(n.left);
+        visit(n.right);
+        emit("add");
+        return null;
     }
 
     @Override
-    public String visitNode(GreaterEqualNode n) throws VoidException {
+    public Void visitNode(GreaterEqualNode n) throws VoidException {
         if (print) {
             printNode(n);
         }
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        return nlJoin(
-                visit(n.left),
-                visit(n.right),
-                "bleq " + l1,
-                "push 1",
-                "b " + l2,
-                l1 + ":",
-                visit(new EqualNode(n.left, n.right)),
-                l2 + ":"
+        visit(n.left);
+        visit(n.right);
+        emit(
+                "lt",
+                "not"
         );
+        return null;
     }
 
     @Override
-    public String visitNode(LessEqualNode n) throws VoidException {
+    public Void visitNode(LessEqualNode n) throws VoidException {
         if (print) {
             printNode(n);
         }
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        return nlJoin(
-                visit(n.left),
-                visit(n.right),
-                "bleq " + l1,
-                "push 0",
-                "b " + l2,
-                l1 + ":",
-                "push 1",
-                l2 + ":"
-        );
+        visit(n.left);
+        visit(n.right);
+        emit("le");
+        return null;
     }
 
     @Override
-    public String visitNode(NotNode n) throws VoidException {
+    public Void visitNode(NotNode n) throws VoidException {
         if (print) {
             printNode(n);
         }
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        return nlJoin(
-                visit(n.node),
-                "push 0",
-                "beq " + l1,
-                "push 0",
-                "b " + l2,
-                l1 + ":",
-                "push 1",
-                l2 + ":"
-        );
+        visit(n.node);
+        emit("not");
+        return null;
     }
 
     @Override
-    public String visitNode(MinusNode n) throws VoidException {
+    public Void visitNode(MinusNode n) throws VoidException {
         if (print) printNode(n);
         //todo check
-        return nlJoin(
-                visit(n.left),
-                visit(n.right),
-                "sub"
-        );
+        visit(n.left);
+        visit(n.right);
+        emit("sub");
+        return null;
     }
 
     @Override
-    public String visitNode(OrNode n) throws VoidException {
+    public Void visitNode(OrNode n) throws VoidException {
         if (print) {
             printNode(n);
         }
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        return nlJoin(
-                visit(n.left),
-                "push 1",
-                "beq " + l1,
-                visit(n.right),
+        visit(n.left);
+        if (isPure(n.right)) { // evaluating the right operand anyway is not observable
+            visit(n.right);
+            emit("or");
+            return null;
+        }
+        String l1 = context.freshLabel();
+        String l2 = context.freshLabel();
+        emit(
                 "push 1",
-                "beq " + l1,
-                "push 0",
+                "beq " + l1
+        );
+        visit(n.right);
+        emit(
                 "b " + l2,
                 l1 + ":",
                 "push 1",
                 l2 + ":"
         );
+        return null;
     }
 
     @Override
-    public String visitNode(DivNode n) throws VoidException {
+    public Void visitNode(DivNode n) throws VoidException {
         if (print) printNode(n);
         //todo check
-        return nlJoin(
-                visit(n.left),
-                visit(n.right),
-                "div"
-        );
+        visit(n.left);
+        visit(n.right);
+        emit("div");
+        return null;
     }
 
     @Override
-    public String visitNode(AndNode n) throws VoidException {
+    public Void visitNode(AndNode n) throws VoidException {
         if (print) {
             printNode(n);
         }
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        String l3 = freshLabel();
-        return nlJoin(
-                visit(n.left),
+        visit(n.left);
+        if (isPure(n.right)) { // evaluating the right operand anyway is not observable
+            visit(n.right);
+            emit("and");
+            return null;
+        }
+        String l1 = context.freshLabel();
+        String l2 = context.freshLabel();
+        emit(
                 "push 1",
                 "beq " + l1,
                 "push 0",
-                "b " + l3,
-                l1 + ":",
-                visit(n.right),
-                "push 1",
-                "beq " + l2,
-                "push 0",
-                "b " + l3,
-                l2 + ":",
-                "push 1",
-                l3 + ":"
+                "b " + l2,
+                l1 + ":"
         );
+        visit(n.right);
+        emit(l2 + ":");
+        return null;
+    }
+
+    // true if evaluating n always terminates without side effects (no calls, print,
+    // allocation or division, which may fail): then "&&" and "||" need not short-circuit
+    static boolean isPure(Node n) {
+        if (n instanceof IntNode || n instanceof BoolNode || n instanceof IdNode || n instanceof EmptyNode)
+            return true;
+        if (n instanceof PlusNode) return isPure(((PlusNode) n).left) && isPure(((PlusNode) n).right);
+        if (n instanceof MinusNode) return isPure(((MinusNode) n).left) && isPure(((MinusNode) n).right);
+        if (n instanceof TimesNode) return isPure(((TimesNode) n).left) && isPure(((TimesNode) n).right);
+        if (n instanceof EqualNode) return isPure(((EqualNode) n).left) && isPure(((EqualNode) n).right);
+        if (n instanceof LessEqualNode) return isPure(((LessEqualNode) n).left) && isPure(((LessEqualNode) n).right);
+        if (n instanceof GreaterEqualNode)
+            return isPure(((GreaterEqualNode) n).left) && isPure(((GreaterEqualNode) n).right);
+        if (n instanceof AndNode) return isPure(((AndNode) n).left) && isPure(((AndNode) n).right);
+        if (n instanceof OrNode) return isPure(((OrNode) n).left) && isPure(((OrNode) n).right);
+        if (n instanceof NotNode) return isPure(((NotNode) n).node);
+        if (n instanceof IfNode)
+            return isPure(((IfNode) n).cond) && isPure(((IfNode) n).th) && isPure(((IfNode) n).el);
+        return false;
     }
 
     @Override
-    public String visitNode(CallNode n) {
+    public Void visitNode(CallNode n) {
         if (print) printNode(n, n.id);
-        String loadARaddr = "";
-        if(n.entry.type instanceof MethodTypeNode){
-             loadARaddr = "lw";
-        }
-        String argCode = null, getAR = null;
+        emit("lfp"); // load Control Link (pointer to frame of function "id" caller)
         for (int i = n.arglist.size() - 1; i >= 0; i--) {
-            argCode = nlJoin(argCode, visit(n.arglist.get(i)));
+            visit(n.arglist.get(i)); // generate code for argument expressions in reversed order
         }
-        for (int i = 0; i < n.nl - n.entry.nl; i++) {
-            getAR = nlJoin(getAR, "lw");
+        emitFrame(n.nl - n.entry.nl); // retrieve address of frame containing "id" declaration
+        if (n.target != null) { // method bound by ClassHierarchyAnalysis: Access Link is the object
+            emit(
+                    "push " + methodLabel(n.target),
+                    "js" // jump to the method (saving address of subsequent instruction in $ra)
+            );
+            return null;
         }
-        return nlJoin(
-                "lfp", // load Control Link (pointer to frame of function "id" caller)
-                argCode, // generate code for argument expressions in reversed order
-                "lfp", getAR, // retrieve address of frame containing "id" declaration
-                // by following the static chain (of Access Links)
+        emit(
                 "stm", // set $tm to popped value (with the aim of duplicating top of stack)
                 "ltm", // load Access Link (pointer to frame of function "id" declaration)
-                "ltm", // duplicate top of stack
-                loadARaddr,
+                "ltm" // duplicate top of stack
+        );
+        if (n.entry.type instanceof MethodTypeNode) { // method of the enclosing class: Access Link is the object
+            emit("mcall " + n.entry.offset); // look up the method in the dispatch table and jump (saving $ra)
+            return null;
+        }
+        emit(
                 "push " + n.entry.offset, "add", // compute address of "id" declaration
                 "lw", // load address of "id" function
                 "js"  // jump to popped address (saving address of subsequent instruction in $ra)
         );
+        return null;
     }
 
     @Override
-    public String visitNode(IdNode n) {
+    public Void visitNode(IdNode n) {
         if (print) printNode(n, n.id);
-        String getAR = null;
-        for (int i = 0; i < n.nl - n.entry.nl; i++) getAR = nlJoin(getAR, "lw");
-        return nlJoin(
-                "lfp", getAR,                  // retrieve address of frame containing "id" declaration
-                                                    // by following the static chain (of Access Links)
+        if (n.nl == n.entry.nl) { // parameter or local declaration of the current frame
+            emitLoadSlot(n.entry.offset);
+            return null;
+        }
+        emitFrame(n.nl - n.entry.nl); // retrieve address of frame containing "id" declaration
+        emit(
                 "push " + n.entry.offset, "add", // compute address of "id" declaration
                 "lw" // load value of "id" variable
         );
+        return null;
     }
 
     @Override
-    public String visitNode(BoolNode n) {
+    public Void visitNode(BoolNode n) {
         if (print) printNode(n, n.val.toString());
-        return "push " + (n.val ? 1 : 0);
+        emit("push " + (n.val ? 1 : 0));
+        return null;
     }
 
     @Override
-    public String visitNode(IntNode n) {
+    public Void visitNode(IntNode n) {
         if (print) printNode(n, n.val.toString());
-        return "push " + n.val;
+        emit("push " + n.val);
+        return null;
     }
 
     @Override
-    public String visitNode(MethodNode n) {
+    public Void visitNode(MethodNode n) {
         if (print) printNode(n, n.id);
-        String ml = freshFunLabel();
+        String ml = methodLabel(n);
         n.label = ml;
 
-        String declCode = null, popDecl = null, popParl = null;
-        for (Node dec : n.declist) {
-            declCode = nlJoin(declCode, visit(dec));
-            popDecl = nlJoin(popDecl, "pop");
-        }
-        for (int i = 0; i < n.parlist.size(); i++) {
-            popParl = nlJoin(popParl, "pop");
-        }
-        putCode(
-                nlJoin(
-                        ml + ":",
-                        "cfp", // set $fp to $sp value
-                        "lra", // load $ra value
-                        declCode, // generate code for local declarations (they use the new $fp!!!)
-                        visit(n.exp), // generate code for function body expression
-                        "stm", // set $tm to popped value (function result)
-                        popDecl, // remove local declarations from stack
-                        "sra", // set $ra to popped value
-                        "pop", // remove Access Link from stack
-                        popParl, // remove parameters from stack
-                        "sfp", // set $fp to popped value (Control Link)
-                        "ltm", // load $tm value (function result)
-                        "lra", // load $ra value
-                        "js"  // jump to to popped address
-                )
+        List<String> callerCode = code;
+        Map<Integer, Integer> callerCache = frameCache;
+        code = new ArrayList<>();
+        frameCache = new HashMap<>();
+        emit(
+                ml + ":",
+                "cfp", // set $fp to $sp value
+                "lra" // load $ra value
+        );
+        for (Node dec : n.declist) visit(dec); // generate code for local declarations (they use the new $fp!!!)
+        int locals = n.declist.size() + cacheOuterFrames(n.exp, n.declist.size());
+        visitTail(n.exp, n.parlist.size(), locals); // generate code for function body expression
+        emit("stm"); // set $tm to popped value (function result)
+        emitRepeated("pop", locals); // remove local declarations (and cached frames) from stack
+        emit(
+                "sra", // set $ra to popped value
+                "pop" // remove Access Link from stack
         );
+        emitRepeated("pop", n.parlist.size()); // remove parameters from stack
+        emit(
+                "sfp", // set $fp to popped value (Control Link)
+                "ltm", // load $tm value (function result)
+                "lra", // load $ra value
+                "js"  // jump to to popped address
+        );
+        context.putCode(code);
+        code = callerCode;
+        frameCache = callerCache;
         return null;
     }
 
     @Override
-    public String visitNode(ClassNode n){
+    public Void visitNode(ClassNode n){
         if (print) printNode(n, n.id);
-        List<String> dispTable = new ArrayList<>();
         for (MethodNode m : n.methods){
             visit(m);
-            dispTable.add(m.label);
         }
 
-        String dispTableCode = "";
-        for (String s : dispTable){
-            dispTableCode = nlJoin(
-                    dispTableCode,
-                    "push " + s,
-                    "lhp",
-                    "sw",
-                    "lhp",
-                    "push 1",
-                    "add",
-                    "shp"
-            );
+        // layout of the objects, read by the garbage collector: for each field, from the last
+        // one, 1 if it holds an object pointer (0 otherwise), then the number of fields;
+        // it precedes the dispatch table, so it is found at negative offsets from the dispatch pointer
+        for (int i = n.fields.size() - 1; i >= 0; i--) {
+            emit("push " + (n.fields.get(i).getType() instanceof RefTypeNode ? 1 : 0));
+            emitHeapPush();
+        }
+        emit("push " + n.fields.size());
+        emitHeapPush();
+
+        emit("lhp"); // dispatch pointer
+        for (MethodNode m : n.methods){
+            emit("push " + m.label);
+            emitHeapPush();
         }
+        return null;
+    }
 
-        return nlJoin(
+    // pops a value and writes it at the address in $hp, which is then incremented
+    private void emitHeapPush() {
+        emit(
                 "lhp",
-                dispTableCode
+                "sw",
+                "lhp",
+                "push 1",
+                "add",
+                "shp"
         );
     }
 
     @Override
-    public String visitNode(EmptyNode n){
+    public Void visitNode(EmptyNode n){
         if (print) printNode(n);
-        return "push -1";
+        emit("push -1");
+        return null;
     }
 
     @Override
-    public String visitNode(ClassCallNode n){
+    public Void visitNode(ClassCallNode n){
         if (print) printNode(n, n.id);
 
-        String argCode = null, getAR = null;
-
+        emit("lfp"); // load Control Link (pointer to frame of function "id" caller)
         for (int i = n.arglist.size() - 1; i >= 0; i--) {
-            argCode = nlJoin(argCode, visit(n.arglist.get(i)));
+            visit(n.arglist.get(i)); // generate code for argument expressions in reversed order
         }
-
-        for (int i = 0; i < n.nl - n.entry.nl; i++) {
-            getAR = nlJoin(getAR, "lw");
-        }
-
-        return nlJoin(
-                "lfp", // load Control Link (pointer to frame of function "id" caller)
-                argCode, // generate code for argument expressions in reversed order
-                "lfp", getAR, // retrieve address of frame containing "id" declaration
-                // by following the static chain (of Access Links)
+        emitFrame(n.nl - n.entry.nl); // retrieve address of frame containing "id" declaration
+        emit(
                 "push " + n.entry.offset,
                 "add", // compute address of "id" declaration
-                "lw", // load address of "id" function
+                "lw" // load Access Link (the object)
+        );
+        if (n.target != null) { // method bound by ClassHierarchyAnalysis
+            emitNullCheck();
+            emit(
+                    "push " + methodLabel(n.target),
+                    "js" // jump to the method (saving address of subsequent instruction in $ra)
+            );
+            return null;
+        }
+        emit(
                 "stm", // set $tm to popped value (with the aim of duplicating top of stack)
                 "ltm", // load Access Link (pointer to frame of function "id" declaration)
                 "ltm", // duplicate top of stack
-                "lw", // load address of dispatch table
-                "push " + n.methodEntry.offset,
-                "add",
-                "lw", // load address of method
-                "js"  // jump to popped address (saving address of subsequent instruction in $ra)
+                "mcall " + n.methodEntry.offset // pop the object, look up the method in its dispatch table
+                                                // and jump to it (saving address of subsequent instruction in $ra)
         );
+        return null;
     }
 
     @Override
-    public String visitNode(NewNode n){
-        if (print) printNode(n, n.id);
+    public Void visitNode(FieldAccessNode n) {
+        if (print) printNode(n, n.object.id);
+        visit(n.object); // load the object
+        emit(
+                "push " + n.offset, "add", // compute address of the field
+                "lw" // load value of the field
+        );
+        return null;
+    }
 
-        String argCode = null, argHeapCode = null;
+    @Override
+    public Void visitNode(NewNode n){
+        if (print) printNode(n, n.id);
 
         for (int i = 0; i < n.arglist.size(); i++) {
-            argCode = nlJoin(argCode, visit(n.arglist.get(i)));
-        }
-
-        for (int i = 0; i < n.arglist.size(); i++){
-            argHeapCode = nlJoin(
-                    argHeapCode,
-                    "lhp",
-                    "sw",
-                    "lhp",
-                    "push 1",
-                    "add",
-                    "shp"
-            );
+            visit(n.arglist.get(i));
         }
 
-        return nlJoin(
-                argCode,
-                argHeapCode,
+        emit(
                 "push " + (ExecuteVM.MEMSIZE + n.entry.offset),
-                "lw",
-                "lhp",
-                "sw",
-                "lhp",
-                "lhp",
-                "push 1",
-                "add",
-                "shp"
+                "lw", // load dispatch pointer
+                "alloc " + n.arglist.size() // pop it and the fields into a new object, push its address
         );
+        return null;
     }
 
-}
\ No newline at end of file
+}
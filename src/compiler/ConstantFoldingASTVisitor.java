@@ -0,0 +1,134 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+
+// Evaluates at compile time the expressions whose operands are literals, simplifies the
+// arithmetic and boolean identities (x+0, x*1, true&&x, ...) and replaces an "if" with a
+// constant condition by the branch that is taken. Run after inlining, which exposes constants.
+// Nothing that the program would do at run time is removed: a division by zero is left to fail
+// at run time, and an operand with side effects (see CodeGenerationASTVisitor.isPure) is never
+// dropped, e.g. "f() * 0" is kept. Integer arithmetic wraps around as in the SVM.
+public class ConstantFoldingASTVisitor extends RewritingASTVisitor {
+
+    public int folded = 0; // number of nodes replaced
+
+    ConstantFoldingASTVisitor() {}
+
+    ConstantFoldingASTVisitor(boolean debug) {
+        super(debug);
+    } //enables print for debugging
+
+    private static boolean isConstant(Node n) {
+        return n instanceof IntNode || n instanceof BoolNode;
+    }
+
+    // value of a literal, with booleans as 1 and 0 like in the SVM
+    private static int value(Node n) {
+        return n instanceof IntNode ? ((IntNode) n).val : ((BoolNode) n).val ? 1 : 0;
+    }
+
+    private static boolean is(Node n, int v) {
+        return isConstant(n) && value(n) == v;
+    }
+
+    private Node fold(Node old, Node n) {
+        folded++;
+        return n.getLine() < 0 ? withLine(old, n) : n;
+    }
+
+    @Override
+    public Node visitNode(IfNode n) {
+        Node rewritten = super.visitNode(n);
+        if (!(rewritten instanceof IfNode) || !(((IfNode) rewritten).cond instanceof BoolNode)) return rewritten;
+        IfNode m = (IfNode) rewritten;
+        return fold(n, ((BoolNode) m.cond).val ? m.th : m.el);
+    }
+
+    @Override
+    public Node visitNode(PlusNode n) {
+        PlusNode m = (PlusNode) super.visitNode(n);
+        if (isConstant(m.left) && isConstant(m.right)) return fold(n, new IntNode(value(m.left) + value(m.right)));
+        if (is(m.left, 0)) return fold(n, m.right);
+        if (is(m.right, 0)) return fold(n, m.left);
+        return m;
+    }
+
+    @Override
+    public Node visitNode(MinusNode n) {
+        MinusNode m = (MinusNode) super.visitNode(n);
+        if (isConstant(m.left) && isConstant(m.right)) return fold(n, new IntNode(value(m.left) - value(m.right)));
+        if (is(m.right, 0)) return fold(n, m.left);
+        return m;
+    }
+
+    @Override
+    public Node visitNode(TimesNode n) {
+        TimesNode m = (TimesNode) super.visitNode(n);
+        if (isConstant(m.left) && isConstant(m.right)) return fold(n, new IntNode(value(m.left) * value(m.right)));
+        if (is(m.left, 1)) return fold(n, m.right);
+        if (is(m.right, 1)) return fold(n, m.left);
+        if (is(m.left, 0) && CodeGenerationASTVisitor.isPure(m.right)) return fold(n, new IntNode(0));
+        if (is(m.right, 0) && CodeGenerationASTVisitor.isPure(m.left)) return fold(n, new IntNode(0));
+        return m;
+    }
+
+    @Override
+    public Node visitNode(DivNode n) {
+        DivNode m = (DivNode) super.visitNode(n);
+        if (isConstant(m.left) && isConstant(m.right) && value(m.right) != 0) // x/0 fails at run time
+            return fold(n, new IntNode(value(m.left) / value(m.right)));
+        if (is(m.right, 1)) return fold(n, m.left);
+        return m;
+    }
+
+    @Override
+    public Node visitNode(EqualNode n) {
+        EqualNode m = (EqualNode) super.visitNode(n);
+        if (isConstant(m.left) && isConstant(m.right)) return fold(n, new BoolNode(value(m.left) == value(m.right)));
+        if (m.left instanceof EmptyNode && m.right instanceof EmptyNode) return fold(n, new BoolNode(true));
+        return m;
+    }
+
+    @Override
+    public Node visitNode(LessEqualNode n) {
+        LessEqualNode m = (LessEqualNode) super.visitNode(n);
+        if (isConstant(m.left) && isConstant(m.right)) return fold(n, new BoolNode(value(m.left) <= value(m.right)));
+        return m;
+    }
+
+    @Override
+    public Node visitNode(GreaterEqualNode n) {
+        GreaterEqualNode m = (GreaterEqualNode) super.visitNode(n);
+        if (isConstant(m.left) && isConstant(m.right)) return fold(n, new BoolNode(value(m.left) >= value(m.right)));
+        return m;
+    }
+
+    @Override
+    public Node visitNode(NotNode n) {
+        NotNode m = (NotNode) super.visitNode(n);
+        if (m.node instanceof BoolNode) return fold(n, new BoolNode(!((BoolNode) m.node).val));
+        if (m.node instanceof NotNode) return fold(n, ((NotNode) m.node).node);
+        return m;
+    }
+
+    @Override
+    public Node visitNode(AndNode n) {
+        AndNode m = (AndNode) super.visitNode(n);
+        if (m.left instanceof BoolNode) // the right operand is evaluated only if the left one is true
+            return fold(n, ((BoolNode) m.left).val ? m.right : m.left);
+        if (m.right instanceof BoolNode && ((BoolNode) m.right).val) return fold(n, m.left);
+        if (m.right instanceof BoolNode && CodeGenerationASTVisitor.isPure(m.left)) return fold(n, m.right);
+        return m;
+    }
+
+    @Override
+    public Node visitNode(OrNode n) {
+        OrNode m = (OrNode) super.visitNode(n);
+        if (m.left instanceof BoolNode) // the right operand is evaluated only if the left one is false
+            return fold(n, ((BoolNode) m.left).val ? m.left : m.right);
+        if (m.right instanceof BoolNode && !((BoolNode) m.right).val) return fold(n, m.left);
+        if (m.right instanceof BoolNode && CodeGenerationASTVisitor.isPure(m.left)) return fold(n, m.right);
+        return m;
+    }
+}
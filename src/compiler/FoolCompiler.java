@@ -0,0 +1,98 @@
+package compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.tree.*;
+import compiler.lib.*;
+import compiler.exc.*;
+import svm.*;
+
+// Compiles FOOL source text into an assembled SVM program and runs it, entirely in memory:
+// unlike Test, nothing is written to files or printed on the console.
+// Errors found by the front-end are collected and reported by a CompilationException.
+// Each compilation has its own CompilationContext, so compile can be called concurrently.
+public class FoolCompiler {
+
+    private final int inliningBudget;
+
+    public FoolCompiler() {
+        this(InliningASTVisitor.DEFAULT_BUDGET);
+    }
+
+    // inliningBudget: maximum number of nodes of the body of an inlined function, 0 disables inlining
+    public FoolCompiler(int inliningBudget) {
+        this.inliningBudget = inliningBudget;
+    }
+
+    public Program compile(String source) throws CompilationException {
+        List<String> errors = new ArrayList<>();
+        CompilationContext context = new CompilationContext();
+
+        FOOLLexer lexer = new FOOLLexer(CharStreams.fromString(source));
+        lexer.log = errors::add;
+        FOOLParser parser = new FOOLParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.addErrorListener(new BaseErrorListener() {
+            @Override
+            public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+                                    int charPositionInLine, String msg, RecognitionException e) {
+                errors.add("Syntax error at line " + line + ": " + msg);
+            }
+        });
+        ParseTree st = parser.prog();
+        if (lexer.lexicalErrors + parser.getNumberOfSyntaxErrors() > 0) throw new CompilationException(errors);
+
+        Node ast = new ASTGenerationSTVisitor().visit(st);
+
+        SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor();
+        symtableVisitor.setLog(errors::add);
+        symtableVisitor.visit(ast);
+
+        TypeCheckEASTVisitor typeCheckVisitor = new TypeCheckEASTVisitor(context);
+        typeCheckVisitor.setLog(errors::add);
+        try {
+            typeCheckVisitor.visit(ast);
+        } catch (IncomplException e) {
+            // errors already reported by the symbol table visit
+        } catch (TypeException e) {
+            errors.add("Type checking error in main program expression: " + e.text);
+        }
+        if (symtableVisitor.stErrors + context.typeErrors > 0) throw new CompilationException(errors);
+
+        new ClassHierarchyAnalysis().visit(ast); // binds calls of methods that are never overridden
+        ast = new InliningASTVisitor(inliningBudget).visit(ast);
+        ast = new ConstantFoldingASTVisitor().visit(ast);
+
+        CodeGenerationASTVisitor codeGenVisitor = new CodeGenerationASTVisitor(context);
+        codeGenVisitor.visit(ast);
+        String code = String.join("\n", PeepholeOptimizer.optimize(codeGenVisitor.getCode()));
+
+        SVMLexer lexerASM = new SVMLexer(CharStreams.fromString(code));
+        SVMParser parserASM = new SVMParser(new CommonTokenStream(lexerASM));
+        parserASM.removeErrorListeners();
+        parserASM.assembly();
+        if (lexerASM.lexicalErrors + parserASM.getNumberOfSyntaxErrors() > 0)
+            throw new IllegalStateException("Generated code could not be assembled");
+        return parserASM.program();
+    }
+
+    // compiles the sources in parallel, one compilation per core; each future holds the program
+    // or, if the compilation failed, an ExecutionException wrapping the CompilationException
+    public List<Future<Program>> compileAll(List<String> sources) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Callable<Program>> tasks = new ArrayList<>();
+            for (String source : sources) tasks.add(() -> compile(source));
+            return pool.invokeAll(tasks);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void run(Program program, OutputSink out) {
+        new ExecuteVM(program, out).cpuDecoded();
+    }
+}
@@ -0,0 +1,286 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+
+import java.util.*;
+
+// Replaces calls of small functions and methods with their body, run after ClassHierarchyAnalysis
+// (which binds method calls to their MethodNode) and before code generation.
+// A callee is inlined if it has no local declarations, no functional parameters, its body has
+// at most "budget" nodes and it is not being expanded already (so recursion is never inlined).
+// The body is instantiated at the nesting level of the call site: parameters are replaced by the
+// arguments, the static chain of outer names is followed from the caller's frame, and the fields
+// of a method called on an object become fields of that object. An argument is substituted
+// only if this does not change what the program does and does not copy its code: it is a
+// constant or a variable, or it appears once in the body, is evaluated exactly once on every
+// path of the body and either it has no side effects or it is the only argument that has some
+// and the rest of the body has none. A method called on an object is inlined only if its body
+// reads a field of the object, or calls one of its methods, before any side effect and no
+// argument has side effects: so the body still stops the program on a null object, as the call
+// does, before anything observable happens.
+public class InliningASTVisitor extends RewritingASTVisitor {
+
+    public static final int DEFAULT_BUDGET = 12;
+
+    public int inlined = 0; // number of call sites replaced by the body of the callee
+
+    // how the evaluation of a method body starts, see start()
+    private static final int READ = 1, NONE = 0, EFFECT = -1;
+
+    private final int budget; // maximum number of nodes of an inlined body, 0 disables inlining
+    private final Map<STentry, FunNode> functions = new HashMap<>();
+    private final Set<DecNode> expanding = new HashSet<>(); // callees whose body is being visited
+
+    InliningASTVisitor() {
+        this(DEFAULT_BUDGET);
+    }
+
+    InliningASTVisitor(int budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public Node visitNode(FunNode n) {
+        functions.put(n.entry, n);
+        expanding.add(n);
+        super.visitNode(n);
+        expanding.remove(n);
+        return n;
+    }
+
+    @Override
+    public Node visitNode(MethodNode n) {
+        expanding.add(n);
+        super.visitNode(n);
+        expanding.remove(n);
+        return n;
+    }
+
+    @Override
+    public Node visitNode(CallNode n) {
+        Node call = super.visitNode(n);
+        List<Node> args = ((CallNode) call).arglist;
+        Node body = null;
+        if (n.target != null) // method of the enclosing class: the object is reached by the static chain
+            body = instantiate(n.target, n.target.parlist, n.target.declist, n.target.exp, args, n.nl, null);
+        else if (functions.containsKey(n.entry)) {
+            FunNode f = functions.get(n.entry);
+            body = instantiate(f, f.parlist, f.declist, f.exp, args, n.nl, null);
+        }
+        return body != null ? body : call;
+    }
+
+    @Override
+    public Node visitNode(ClassCallNode n) {
+        Node call = super.visitNode(n);
+        if (n.target == null) return call;
+        IdNode receiver = new IdNode(n.id);
+        receiver.entry = n.entry;
+        receiver.nl = n.nl;
+        Node body = instantiate(n.target, n.target.parlist, n.target.declist, n.target.exp,
+                ((ClassCallNode) call).arglist, n.nl, withLine(n, receiver));
+        return body != null ? body : call;
+    }
+
+    // body of the callee instantiated at the call site, already visited, or null if it cannot be inlined
+    private Node instantiate(DecNode callee, List<ParNode> parlist, List<DecNode> declist, Node exp,
+                             List<Node> args, int nl, IdNode receiver) {
+        if (budget <= 0 || expanding.contains(callee) || !declist.isEmpty() || size(exp) > budget) return null;
+        int effects = 0;
+        for (int i = 0; i < parlist.size(); i++) {
+            Node arg = args.get(i);
+            if (parlist.get(i).getType() instanceof ArrowTypeNode) return null;
+            if (isConstantOrVariable(arg)) continue;
+            if (occurrences(exp, i + 1) != 1 || uses(exp, i + 1) != 1) return null;
+            if (!CodeGenerationASTVisitor.isPure(arg)) effects++;
+        }
+        if (effects > 1 || effects == 1 && !CodeGenerationASTVisitor.isPure(exp)) return null;
+        if (receiver != null && (effects > 0 || start(exp) != READ)) return null;
+        Instantiation instance = new Instantiation(args, nl, receiver);
+        Node body = instance.visit(exp);
+        if (instance.failed) return null;
+        inlined++;
+        expanding.add(callee);
+        body = visit(body); // inlines the calls in the body
+        expanding.remove(callee);
+        return body;
+    }
+
+    private static boolean isConstantOrVariable(Node n) {
+        return n instanceof IntNode || n instanceof BoolNode || n instanceof EmptyNode || n instanceof IdNode;
+    }
+
+    // a body has no local declarations, so all its names are at the same nesting level,
+    // the one of the parameters
+    private static boolean isParameter(STentry entry, int nl, int offset) {
+        return entry.nl == nl && entry.offset == offset;
+    }
+
+    // number of places where the parameter with the given offset appears in the body, each of
+    // them would get a copy of the argument (an "if" using it in both branches has two)
+    private static int occurrences(Node n, int offset) {
+        if (n instanceof IdNode) return isParameter(((IdNode) n).entry, ((IdNode) n).nl, offset) ? 1 : 0;
+        if (n instanceof FieldAccessNode) return occurrences(((FieldAccessNode) n).object, offset);
+        int count = 0;
+        if (n instanceof ClassCallNode && isParameter(((ClassCallNode) n).entry, ((ClassCallNode) n).nl, offset))
+            count++;
+        for (Node c : children(n)) count += occurrences(c, offset);
+        return count;
+    }
+
+    // number of evaluations of the parameter with the given offset, -1 if it differs between paths
+    private static int uses(Node n, int offset) {
+        if (n instanceof IdNode) return isParameter(((IdNode) n).entry, ((IdNode) n).nl, offset) ? 1 : 0;
+        if (n instanceof IfNode) {
+            int cond = uses(((IfNode) n).cond, offset);
+            int th = uses(((IfNode) n).th, offset);
+            int el = uses(((IfNode) n).el, offset);
+            return cond < 0 || th < 0 || th != el ? -1 : cond + th;
+        }
+        if (n instanceof AndNode || n instanceof OrNode) { // the right operand may not be evaluated
+            List<Node> operands = children(n);
+            int left = uses(operands.get(0), offset);
+            return left < 0 || uses(operands.get(1), offset) != 0 ? -1 : left;
+        }
+        int count = 0;
+        if (n instanceof ClassCallNode && isParameter(((ClassCallNode) n).entry, ((ClassCallNode) n).nl, offset))
+            count++;
+        if (n instanceof FieldAccessNode) return uses(((FieldAccessNode) n).object, offset);
+        for (Node c : children(n)) {
+            int k = uses(c, offset);
+            if (k < 0) return -1;
+            count += k;
+        }
+        return count;
+    }
+
+    // READ if evaluating the method body reads a field of its object or calls one of its methods
+    // before any side effect (or failure) on every path, EFFECT if something else may come first,
+    // NONE if neither happens
+    private static int start(Node n) {
+        if (n instanceof IdNode) return ((IdNode) n).entry.nl == ((IdNode) n).nl - 1 ? READ : NONE;
+        if (n instanceof IfNode) {
+            int cond = start(((IfNode) n).cond);
+            if (cond != NONE) return cond;
+            int th = start(((IfNode) n).th);
+            int el = start(((IfNode) n).el);
+            return th == el ? th : th == EFFECT || el == EFFECT ? EFFECT : NONE;
+        }
+        if (n instanceof AndNode || n instanceof OrNode) { // the right operand may not be evaluated
+            List<Node> operands = children(n);
+            int left = start(operands.get(0));
+            if (left != NONE) return left;
+            return start(operands.get(1)) == EFFECT ? EFFECT : NONE;
+        }
+        List<Node> operands = children(n);
+        boolean call = n instanceof CallNode || n instanceof ClassCallNode;
+        for (int i = 0; i < operands.size(); i++) {
+            int s = start(operands.get(call ? operands.size() - 1 - i : i)); // arguments are pushed in reverse order
+            if (s != NONE) return s;
+        }
+        if (n instanceof CallNode) return ((CallNode) n).entry.nl == ((CallNode) n).nl - 1 ? READ : EFFECT;
+        if (n instanceof ClassCallNode) return ((ClassCallNode) n).entry.nl == ((ClassCallNode) n).nl - 1 ? READ : EFFECT;
+        if (n instanceof PrintNode || n instanceof NewNode || n instanceof DivNode) return EFFECT;
+        return NONE;
+    }
+
+    private static int size(Node n) {
+        int size = 1;
+        for (Node c : children(n)) size += size(c);
+        return size;
+    }
+
+    // copy of a body placed at nesting level nl, with the arguments in place of the parameters;
+    // "failed" is set if some name cannot be expressed at the call site
+    private static class Instantiation extends RewritingASTVisitor {
+
+        private final List<Node> args;
+        private final int nl;
+        private final IdNode receiver; // object a method is called on, null if reached by the static chain
+        boolean failed = false;
+
+        Instantiation(List<Node> args, int nl, IdNode receiver) {
+            this.args = args;
+            this.nl = nl;
+            this.receiver = receiver;
+        }
+
+        // true for the fields and methods of the receiver, in a body one level below its class
+        private boolean isMember(STentry entry, int nl) {
+            return receiver != null && entry.nl == nl - 1;
+        }
+
+        // the variable at the call site, null if it is not a variable there
+        private IdNode variable(String id, STentry entry, int nl) {
+            if (entry.nl == nl) {
+                Node arg = args.get(entry.offset - 1);
+                return arg instanceof IdNode ? (IdNode) arg : null;
+            }
+            if (isMember(entry, nl)) return null;
+            IdNode v = new IdNode(id);
+            v.entry = entry;
+            v.nl = this.nl;
+            return v;
+        }
+
+        @Override
+        public Node visitNode(IdNode n) {
+            if (n.entry.type instanceof ArrowTypeNode || n.entry.type instanceof MethodTypeNode) {
+                failed = true;
+                return n;
+            }
+            if (n.entry.nl == n.nl) return args.get(n.entry.offset - 1);
+            if (isMember(n.entry, n.nl)) return withLine(n, new FieldAccessNode(receiver, n.entry.offset));
+            return withLine(n, variable(n.id, n.entry, n.nl));
+        }
+
+        @Override
+        public Node visitNode(FieldAccessNode n) {
+            IdNode object = variable(n.object.id, n.object.entry, n.object.nl);
+            if (object == null) {
+                failed = true;
+                return n;
+            }
+            return withLine(n, new FieldAccessNode(object, n.offset));
+        }
+
+        @Override
+        public Node visitNode(CallNode n) {
+            List<Node> args = visitList(n.arglist);
+            if (n.entry.nl == n.nl) { // functional parameter
+                failed = true;
+                return n;
+            }
+            if (isMember(n.entry, n.nl)) { // another method of the receiver
+                ClassCallNode call = withLine(n, new ClassCallNode(receiver.id, n.id, args));
+                call.entry = receiver.entry;
+                call.methodEntry = n.entry;
+                call.nl = nl;
+                call.target = n.target;
+                return call;
+            }
+            CallNode call = withLine(n, new CallNode(n.id, args));
+            call.entry = n.entry;
+            call.nl = nl;
+            call.target = n.target;
+            return call;
+        }
+
+        @Override
+        public Node visitNode(ClassCallNode n) {
+            List<Node> args = visitList(n.arglist);
+            IdNode object = variable(n.id, n.entry, n.nl);
+            if (object == null) {
+                failed = true;
+                return n;
+            }
+            ClassCallNode call = withLine(n, new ClassCallNode(object.id, n.methodId, args));
+            call.entry = object.entry;
+            call.methodEntry = n.methodEntry;
+            call.nl = object.nl;
+            call.target = n.target;
+            return call;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Peephole stage applied to the code produced by CodeGenerationASTVisitor:
+// rewrites the fixed instruction sequences emitted by the code generator into the
+// equivalent superinstructions of the SVM (lwfp, swfp, lwo, hpush, dup).
+// A sequence is fused only if it does not contain labels, i.e. no jump can land
+// in the middle of it.
+public class PeepholeOptimizer {
+
+    // each rule is {pattern, replacement}; "#" stands for an integer operand
+    private static final String[][][] RULES = {
+            {{"lfp", "push #", "add", "lw"}, {"lwfp #"}},           // IdNode at the same nesting level
+            {{"lfp", "lw"}, {"lwfp 0"}},                            // first step of the static chain
+            {{"lfp", "push #", "add", "sw"}, {"swfp #"}},           // frame slot written by a tail call
+            {{"push #", "add", "lw"}, {"lwo #"}},                   // field, outer variable, method address
+            {{"lhp", "sw", "lhp", "push 1", "add", "shp"}, {"hpush"}}, // heap word in ClassNode
+            {{"stm", "ltm", "ltm"}, {"dup"}}                        // Access Link duplication in calls
+    };
+
+    public static List<String> optimize(List<String> lines) {
+        List<String> out = new ArrayList<>(lines.size());
+        int i = 0;
+        while (i < lines.size()) {
+            int matched = 0;
+            for (String[][] rule : RULES) {
+                String operand = match(rule[0], lines, i);
+                if (operand != null) {
+                    for (String r : rule[1]) out.add(r.replace("#", operand));
+                    matched = rule[0].length;
+                    break;
+                }
+            }
+            if (matched == 0) out.add(lines.get(i++));
+            else i += matched;
+        }
+        return out;
+    }
+
+    // returns the captured operand ("" if the pattern has none), or null if the pattern does not match at i
+    private static String match(String[] pattern, List<String> lines, int i) {
+        if (i + pattern.length > lines.size()) return null;
+        String operand = "";
+        for (int k = 0; k < pattern.length; k++) {
+            String line = lines.get(i + k);
+            if (pattern[k].endsWith("#")) {
+                String prefix = pattern[k].substring(0, pattern[k].length() - 1);
+                if (!line.startsWith(prefix) || !isInteger(line.substring(prefix.length()))) return null;
+                operand = line.substring(prefix.length());
+            } else if (!line.equals(pattern[k])) return null;
+        }
+        return operand;
+    }
+
+    private static boolean isInteger(String s) {
+        return s.matches("-?[0-9]+");
+    }
+}
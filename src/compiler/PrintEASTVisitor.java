@@ -243,6 +243,13 @@ public class PrintEASTVisitor extends BaseEASTVisitor<Void, VoidException> {
         return null;
     }
 
+    @Override
+    public Void visitNode(FieldAccessNode n) throws VoidException {
+        printNode(n, "offset " + n.offset);
+        visit(n.object);
+        return null;
+    }
+
     @Override
     public Void visitNode(EmptyNode n) throws VoidException {
         printNode(n);
@@ -0,0 +1,264 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+import compiler.exc.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Base of the optimisation passes run on the enriched AST between type checking and code
+// generation: visitNode(n) returns the node that replaces n, which is n itself if nothing in
+// it changed. Expression nodes are rebuilt keeping line, symbol table entries, nesting levels
+// and call targets; declarations are kept (STentry and call targets refer to them) and only
+// their expression is replaced.
+public class RewritingASTVisitor extends BaseASTVisitor<Node, VoidException> {
+
+    RewritingASTVisitor() {}
+
+    RewritingASTVisitor(boolean debug) {
+        super(false, debug);
+    } //enables print for debugging
+
+    // gives the new node the line of the node it replaces
+    static <T extends Node> T withLine(Node old, T n) {
+        n.setLine(old.getLine());
+        return n;
+    }
+
+    // subexpressions of an expression node
+    static List<Node> children(Node n) {
+        if (n instanceof PrintNode) return List.of(((PrintNode) n).exp);
+        if (n instanceof IfNode) return List.of(((IfNode) n).cond, ((IfNode) n).th, ((IfNode) n).el);
+        if (n instanceof NotNode) return List.of(((NotNode) n).node);
+        if (n instanceof EqualNode) return List.of(((EqualNode) n).left, ((EqualNode) n).right);
+        if (n instanceof LessEqualNode) return List.of(((LessEqualNode) n).left, ((LessEqualNode) n).right);
+        if (n instanceof GreaterEqualNode) return List.of(((GreaterEqualNode) n).left, ((GreaterEqualNode) n).right);
+        if (n instanceof PlusNode) return List.of(((PlusNode) n).left, ((PlusNode) n).right);
+        if (n instanceof MinusNode) return List.of(((MinusNode) n).left, ((MinusNode) n).right);
+        if (n instanceof TimesNode) return List.of(((TimesNode) n).left, ((TimesNode) n).right);
+        if (n instanceof DivNode) return List.of(((DivNode) n).left, ((DivNode) n).right);
+        if (n instanceof AndNode) return List.of(((AndNode) n).left, ((AndNode) n).right);
+        if (n instanceof OrNode) return List.of(((OrNode) n).left, ((OrNode) n).right);
+        if (n instanceof CallNode) return ((CallNode) n).arglist;
+        if (n instanceof ClassCallNode) return ((ClassCallNode) n).arglist;
+        if (n instanceof NewNode) return ((NewNode) n).arglist;
+        return List.of();
+    }
+
+    // rewritten list, or the same list if no element changed
+    List<Node> visitList(List<Node> nodes) {
+        List<Node> result = null;
+        for (int i = 0; i < nodes.size(); i++) {
+            Node n = visit(nodes.get(i));
+            if (n != nodes.get(i) && result == null) result = new ArrayList<>(nodes.subList(0, i));
+            if (result != null) result.add(n);
+        }
+        return result == null ? nodes : result;
+    }
+
+    @Override
+    public Node visitNode(ProgLetInNode n) {
+        if (print) printNode(n);
+        for (Node dec : n.declist) visit(dec);
+        Node exp = visit(n.exp);
+        return exp == n.exp ? n : withLine(n, new ProgLetInNode(n.declist, exp));
+    }
+
+    @Override
+    public Node visitNode(ProgNode n) {
+        if (print) printNode(n);
+        Node exp = visit(n.exp);
+        return exp == n.exp ? n : withLine(n, new ProgNode(exp));
+    }
+
+    @Override
+    public Node visitNode(FunNode n) {
+        if (print) printNode(n, n.id);
+        for (Node dec : n.declist) visit(dec);
+        n.exp = visit(n.exp);
+        return n;
+    }
+
+    @Override
+    public Node visitNode(VarNode n) {
+        if (print) printNode(n, n.id);
+        n.exp = visit(n.exp);
+        return n;
+    }
+
+    @Override
+    public Node visitNode(PrintNode n) {
+        if (print) printNode(n);
+        Node exp = visit(n.exp);
+        return exp == n.exp ? n : withLine(n, new PrintNode(exp));
+    }
+
+    @Override
+    public Node visitNode(IfNode n) {
+        if (print) printNode(n);
+        Node cond = visit(n.cond);
+        Node th = visit(n.th);
+        Node el = visit(n.el);
+        return cond == n.cond && th == n.th && el == n.el ? n : withLine(n, new IfNode(cond, th, el));
+    }
+
+    @Override
+    public Node visitNode(EqualNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new EqualNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(TimesNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new TimesNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(PlusNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new PlusNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(GreaterEqualNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new GreaterEqualNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(LessEqualNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new LessEqualNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(NotNode n) {
+        if (print) printNode(n);
+        Node node = visit(n.node);
+        return node == n.node ? n : withLine(n, new NotNode(node));
+    }
+
+    @Override
+    public Node visitNode(MinusNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new MinusNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(OrNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new OrNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(DivNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new DivNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(AndNode n) {
+        if (print) printNode(n);
+        Node left = visit(n.left);
+        Node right = visit(n.right);
+        return left == n.left && right == n.right ? n : withLine(n, new AndNode(left, right));
+    }
+
+    @Override
+    public Node visitNode(CallNode n) {
+        if (print) printNode(n, n.id);
+        List<Node> args = visitList(n.arglist);
+        if (args == n.arglist) return n;
+        CallNode call = withLine(n, new CallNode(n.id, args));
+        call.entry = n.entry;
+        call.nl = n.nl;
+        call.target = n.target;
+        return call;
+    }
+
+    @Override
+    public Node visitNode(IdNode n) {
+        if (print) printNode(n, n.id);
+        return n;
+    }
+
+    @Override
+    public Node visitNode(BoolNode n) {
+        if (print) printNode(n, n.val.toString());
+        return n;
+    }
+
+    @Override
+    public Node visitNode(IntNode n) {
+        if (print) printNode(n, n.val.toString());
+        return n;
+    }
+
+    @Override
+    public Node visitNode(ClassNode n) {
+        if (print) printNode(n, n.id);
+        for (MethodNode m : n.methods) visit(m);
+        return n;
+    }
+
+    @Override
+    public Node visitNode(MethodNode n) {
+        if (print) printNode(n, n.id);
+        for (Node dec : n.declist) visit(dec);
+        n.exp = visit(n.exp);
+        return n;
+    }
+
+    @Override
+    public Node visitNode(ClassCallNode n) {
+        if (print) printNode(n, n.id + "." + n.methodId);
+        List<Node> args = visitList(n.arglist);
+        if (args == n.arglist) return n;
+        ClassCallNode call = withLine(n, new ClassCallNode(n.id, n.methodId, args));
+        call.entry = n.entry;
+        call.methodEntry = n.methodEntry;
+        call.nl = n.nl;
+        call.target = n.target;
+        return call;
+    }
+
+    @Override
+    public Node visitNode(NewNode n) {
+        if (print) printNode(n, n.id);
+        List<Node> args = visitList(n.arglist);
+        if (args == n.arglist) return n;
+        NewNode node = withLine(n, new NewNode(n.id, args));
+        node.entry = n.entry;
+        return node;
+    }
+
+    @Override
+    public Node visitNode(EmptyNode n) {
+        if (print) printNode(n);
+        return n;
+    }
+
+    @Override
+    public Node visitNode(FieldAccessNode n) {
+        if (print) printNode(n, n.object.id + " field " + n.offset);
+        return n;
+    }
+}
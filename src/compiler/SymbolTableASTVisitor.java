@@ -56,9 +56,10 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         List<TypeNode> parTypes = new ArrayList<>();
         for (ParNode par : n.parlist) parTypes.add(par.getType());
         STentry entry = new STentry(nestingLevel, new ArrowTypeNode(parTypes, n.retType), decOffset--);
+        n.entry = entry;
         //inserimento di ID nella symtable
         if (hm.put(n.id, entry) != null) {
-            System.out.println("Fun id " + n.id + " at line " + n.getLine() + " already declared");
+            log.accept("Fun id " + n.id + " at line " + n.getLine() + " already declared");
             stErrors++;
         }
         //creare una nuova hashmap per la symTable
@@ -71,7 +72,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         int parOffset = 1;
         for (ParNode par : n.parlist)
             if (hmn.put(par.id, new STentry(nestingLevel, par.getType(), parOffset++)) != null) {
-                System.out.println("Par id " + par.id + " at line " + n.getLine() + " already declared");
+                log.accept("Par id " + par.id + " at line " + n.getLine() + " already declared");
                 stErrors++;
             }
         for (Node dec : n.declist) visit(dec);
@@ -90,7 +91,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         STentry entry = new STentry(nestingLevel, n.getType(), decOffset--);
         //inserimento di ID nella symtable
         if (hm.put(n.id, entry) != null) {
-            System.out.println("Var id " + n.id + " at line " + n.getLine() + " already declared");
+            log.accept("Var id " + n.id + " at line " + n.getLine() + " already declared");
             stErrors++;
         }
         return null;
@@ -196,7 +197,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         if (print) printNode(n);
         STentry entry = stLookup(n.id);
         if (entry == null) {
-            System.out.println("Fun id " + n.id + " at line " + n.getLine() + " not declared");
+            log.accept("Fun id " + n.id + " at line " + n.getLine() + " not declared");
             stErrors++;
         } else {
             n.entry = entry;
@@ -211,7 +212,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         if (print) printNode(n);
         STentry entry = stLookup(n.id);
         if (entry == null) {
-            System.out.println("Var or Par id " + n.id + " at line " + n.getLine() + " not declared");
+            log.accept("Var or Par id " + n.id + " at line " + n.getLine() + " not declared");
             stErrors++;
         } else {
             n.entry = entry;
@@ -242,7 +243,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
 
         final Map<String, STentry> globalST = symTable.get(0);
         if (globalST.put(n.id, entry) != null) {
-            System.out.println("Class id " + n.id + " at line " + n.getLine() + " already declared");
+            log.accept("Class id " + n.id + " at line " + n.getLine() + " already declared");
             stErrors++;
         }
 
@@ -263,7 +264,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         for (FieldNode field : n.fields) {
             // Add the field to the class table
             if (fieldNames.contains(field.id)) {
-                System.out.println("Field id " + field.id + " at line " + n.getLine() + " already declared");
+                log.accept("Field id " + field.id + " at line " + n.getLine() + " already declared");
                 stErrors++;
             } else {
                 fieldNames.add(field.id);
@@ -282,7 +283,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         List<String> methodNames = new ArrayList<>();
         for (MethodNode method : n.methods) {
             if (methodNames.contains(method.id)) {
-                System.out.println("Method id " + method.id + " at line " + n.getLine() + " already declared");
+                log.accept("Method id " + method.id + " at line " + n.getLine() + " already declared");
                 stErrors++;
             } else {
                 methodNames.add(method.id);
@@ -323,7 +324,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         int parOffset = 1;
         for (ParNode par : n.parlist)
             if (methodScopeTable.put(par.id, new STentry(nestingLevel, par.getType(), parOffset++)) != null) {
-                System.out.println("Par id " + par.id + " at line " + n.getLine() + " already declared");
+                log.accept("Par id " + par.id + " at line " + n.getLine() + " already declared");
                 stErrors++;
             }
         for (Node dec : n.declist) visit(dec);
@@ -339,7 +340,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
         if (print) printNode(node);
         STentry entry = stLookup(node.id);
         if (entry == null) {
-            System.out.println("Var or Par id " + node.id + " at line " + node.getLine() + " not declared");
+            log.accept("Var or Par id " + node.id + " at line " + node.getLine() + " not declared");
             stErrors++;
         } else if (entry.type instanceof RefTypeNode) {
             node.entry = entry;
@@ -348,11 +349,11 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
             if (virtualTable.containsKey(node.methodId)){
                 node.methodEntry = virtualTable.get(node.methodId);
             } else {
-                System.out.println("Object id " + node.id + " at line " + node.getLine() + " has no method " + node.methodId);
+                log.accept("Object id " + node.id + " at line " + node.getLine() + " has no method " + node.methodId);
                 stErrors++;
             }
         } else {
-            System.out.println("Object id " + node.id + " at line " + node.getLine() + " is not a class");
+            log.accept("Object id " + node.id + " at line " + node.getLine() + " is not a class");
             stErrors++;
         }
 
@@ -364,7 +365,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void, VoidException> {
     public Void visitNode(NewNode node) throws VoidException {
         if (print) printNode(node);
         if(!classTable.containsKey(node.id)){
-            System.out.println("Class id " + node.id + " at line " + node.getLine() + " not declared");
+            log.accept("Class id " + node.id + " at line " + node.getLine() + " not declared");
             stErrors++;
         }
         node.entry = symTable.get(0).get(node.id);
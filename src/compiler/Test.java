@@ -9,6 +9,7 @@ import compiler.exc.*;
 import svm.*;
 //import visualsvm.*;
 import java.nio.file.*;
+import java.util.List;
 
 public class Test {
     public static void main(String[] args) throws Exception {
@@ -40,8 +41,9 @@ public class Test {
         System.out.println("");
 
         System.out.println("Checking Types.");
+        CompilationContext context = new CompilationContext();
         try {
-            TypeCheckEASTVisitor typeCheckVisitor = new TypeCheckEASTVisitor();
+            TypeCheckEASTVisitor typeCheckVisitor = new TypeCheckEASTVisitor(context);
             TypeNode mainType = typeCheckVisitor.visit(ast);
             System.out.print("Type of main program expression is: ");
             new PrintEASTVisitor().visit(mainType);
@@ -50,22 +52,40 @@ public class Test {
         } catch (TypeException e) {
             System.out.println("Type checking error in main program expression: " + e.text);
         }
-        System.out.println("You had " + FOOLlib.typeErrors + " type checking errors.\n");
+        System.out.println("You had " + context.typeErrors + " type checking errors.\n");
 
-        int frontEndErrors = lexer.lexicalErrors + parser.getNumberOfSyntaxErrors() + symtableVisitor.stErrors + FOOLlib.typeErrors;
+        int frontEndErrors = lexer.lexicalErrors + parser.getNumberOfSyntaxErrors() + symtableVisitor.stErrors + context.typeErrors;
         System.out.println("You had a total of " + frontEndErrors + " front-end errors.\n");
 
         if (frontEndErrors > 0) System.exit(1);
 
+        System.out.println("Devirtualizing method calls via class hierarchy analysis.");
+        ClassHierarchyAnalysis chaVisitor = new ClassHierarchyAnalysis();
+        chaVisitor.visit(ast);
+        System.out.println("You had " + chaVisitor.devirtualized + " method call sites devirtualized.\n");
+
+        System.out.println("Inlining small functions and methods.");
+        InliningASTVisitor inliningVisitor = new InliningASTVisitor(); // budget: InliningASTVisitor.DEFAULT_BUDGET nodes
+        ast = inliningVisitor.visit(ast);
+        System.out.println("You had " + inliningVisitor.inlined + " call sites inlined.\n");
+
+        System.out.println("Folding constant expressions.");
+        ConstantFoldingASTVisitor foldingVisitor = new ConstantFoldingASTVisitor();
+        ast = foldingVisitor.visit(ast);
+        System.out.println("You had " + foldingVisitor.folded + " nodes folded.\n");
+
         System.out.println("Generating code.");
-        String code = new CodeGenerationASTVisitor().visit(ast);
+        CodeGenerationASTVisitor codeGenVisitor = new CodeGenerationASTVisitor(context);
+        codeGenVisitor.visit(ast);
+        List<String> instructions = PeepholeOptimizer.optimize(codeGenVisitor.getCode()); // fuses recurring sequences into superinstructions
+        String code = String.join("\n", instructions);
         BufferedWriter out = new BufferedWriter(new FileWriter(fileName + ".asm"));
         out.write(code);
         out.close();
         System.out.println("");
 
         System.out.println("Assembling generated code.");
-        CharStream charsASM = CharStreams.fromFileName(fileName + ".asm");
+        CharStream charsASM = CharStreams.fromString(code);
         SVMLexer lexerASM = new SVMLexer(charsASM);
         CommonTokenStream tokensASM = new CommonTokenStream(lexerASM);
         SVMParser parserASM = new SVMParser(tokensASM);
@@ -76,10 +96,14 @@ public class Test {
         System.out.println("You had: " + lexerASM.lexicalErrors + " lexical errors and " + parserASM.getNumberOfSyntaxErrors() + " syntax errors.\n");
         if (lexerASM.lexicalErrors + parserASM.getNumberOfSyntaxErrors() > 0) System.exit(1);
 
+        Program program = parserASM.program();
+        program.save(Paths.get(fileName + Program.EXTENSION)); // can be run with "java svm.ExecuteVM <file>"
+
         System.out.println("Running generated code via Stack Virtual Machine.");
-        ExecuteVM vm = new ExecuteVM(parserASM.code);
+        ExecuteVM vm = new ExecuteVM(program);
 //		ExecuteVM vm = new ExecuteVM(parserASM.code,parserASM.sourceMap,Files.readAllLines(Paths.get(fileName+".asm")));
-        vm.cpu();
+        vm.cpuDecoded();
+//		vm.cpu(); // reference engine, decodes each instruction while executing it
 
     }
 }
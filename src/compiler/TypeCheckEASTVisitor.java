@@ -15,15 +15,24 @@ import static compiler.TypeRels.*;
 public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeException> {
 
     private RefTypeNode at;
+    private final CompilationContext context;
 
-    TypeCheckEASTVisitor() {
+    TypeCheckEASTVisitor(CompilationContext c) {
         super(true);
+        context = c;
     } // enables incomplete tree exceptions
 
-    TypeCheckEASTVisitor(boolean debug) {
+    TypeCheckEASTVisitor(CompilationContext c, boolean debug) {
         super(true, debug);
+        context = c;
     } // enables print for debugging
 
+    //creates a type exception, counting it among the type errors of the compilation
+    private TypeException typeError(String text, int line) {
+        context.typeErrors++;
+        return new TypeException(text, line);
+    }
+
     //checks that a type object is visitable (not incomplete)
     private TypeNode ckvisit(TypeNode t) throws TypeException {
         visit(t);
@@ -38,7 +47,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
                 visit(dec);
             } catch (IncomplException e) {
             } catch (TypeException e) {
-                System.out.println("Type checking error in a declaration: " + e.text);
+                log.accept("Type checking error in a declaration: " + e.text);
             }
         return visit(n.exp);
     }
@@ -57,10 +66,10 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
                 visit(dec);
             } catch (IncomplException e) {
             } catch (TypeException e) {
-                System.out.println("Type checking error in a declaration: " + e.text);
+                log.accept("Type checking error in a declaration: " + e.text);
             }
         if (!isSubtype(visit(n.exp), ckvisit(n.retType)))
-            throw new TypeException("Wrong return type for function " + n.id, n.getLine());
+            throw typeError("Wrong return type for function " + n.id, n.getLine());
         return null;
     }
 
@@ -68,7 +77,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
     public TypeNode visitNode(VarNode n) throws TypeException {
         if (print) printNode(n, n.id);
         if (!isSubtype(visit(n.exp), ckvisit(n.getType())))
-            throw new TypeException("Incompatible value for variable " + n.id, n.getLine());
+            throw typeError("Incompatible value for variable " + n.id, n.getLine());
         return null;
     }
 
@@ -82,12 +91,12 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
     public TypeNode visitNode(IfNode n) throws TypeException {
         if (print) printNode(n);
         if (!(isSubtype(visit(n.cond), new BoolTypeNode())))
-            throw new TypeException("Non boolean condition in if", n.getLine());
+            throw typeError("Non boolean condition in if", n.getLine());
         TypeNode t = visit(n.th);
         TypeNode e = visit(n.el);
         if (isSubtype(t, e)) return e;
         if (isSubtype(e, t)) return t;
-        throw new TypeException("Incompatible types in then-else branches", n.getLine());
+        throw typeError("Incompatible types in then-else branches", n.getLine());
     }
 
     @Override
@@ -96,7 +105,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         TypeNode l = visit(n.left);
         TypeNode r = visit(n.right);
         if (!(isSubtype(l, r) || isSubtype(r, l)))
-            throw new TypeException("Incompatible types in equal", n.getLine());
+            throw typeError("Incompatible types in equal", n.getLine());
         return new BoolTypeNode();
     }
 
@@ -105,7 +114,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         if (!(isSubtype(visit(n.left), new IntTypeNode())
                 && isSubtype(visit(n.right), new IntTypeNode())))
-            throw new TypeException("Non integers in multiplication", n.getLine());
+            throw typeError("Non integers in multiplication", n.getLine());
         return new IntTypeNode();
     }
 
@@ -114,7 +123,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         if (!(isSubtype(visit(n.left), new IntTypeNode())
                 && isSubtype(visit(n.right), new IntTypeNode())))
-            throw new TypeException("Non integers in sum", n.getLine());
+            throw typeError("Non integers in sum", n.getLine());
         return new IntTypeNode();
     }
 
@@ -125,7 +134,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         TypeNode l = visit(n.left);
         TypeNode r = visit(n.right);
         if (!(isSubtype(l, r) || isSubtype(r, l)))
-            throw new TypeException("Incompatible types in greater equal", n.getLine());
+            throw typeError("Incompatible types in greater equal", n.getLine());
         return new BoolTypeNode();
     }
 
@@ -135,7 +144,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         TypeNode l = visit(n.left);
         TypeNode r = visit(n.right);
         if (!(isSubtype(l, r) || isSubtype(r, l)))
-            throw new TypeException("Incompatible types in less equal", n.getLine());
+            throw typeError("Incompatible types in less equal", n.getLine());
         return new BoolTypeNode();
     }
 
@@ -143,7 +152,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
     public TypeNode visitNode(NotNode n) throws TypeException {
         if (print) printNode(n);
         if (!isSubtype(visit(n.node), new BoolTypeNode()))
-            throw new TypeException("Non bool in not", n.getLine());
+            throw typeError("Non bool in not", n.getLine());
         return new BoolTypeNode();
     }
 
@@ -152,7 +161,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         if (!(isSubtype(visit(n.left), new IntTypeNode())
                 && isSubtype(visit(n.right), new IntTypeNode())))
-            throw new TypeException("Non integers in sub", n.getLine());
+            throw typeError("Non integers in sub", n.getLine());
         return new IntTypeNode();
     }
 
@@ -161,7 +170,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         if (!(isSubtype(visit(n.left), new BoolTypeNode())
                 && isSubtype(visit(n.right), new BoolTypeNode())))
-            throw new TypeException("Non bool in or", n.getLine());
+            throw typeError("Non bool in or", n.getLine());
         return new BoolTypeNode();
     }
 
@@ -170,7 +179,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         if (!(isSubtype(visit(n.left), new IntTypeNode())
                 && isSubtype(visit(n.right), new IntTypeNode())))
-            throw new TypeException("Non integers in div", n.getLine());
+            throw typeError("Non integers in div", n.getLine());
         return new IntTypeNode();
     }
 
@@ -179,7 +188,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         if (!(isSubtype(visit(n.left), new BoolTypeNode())
                 && isSubtype(visit(n.right), new BoolTypeNode())))
-            throw new TypeException("Non bool in and", n.getLine());
+            throw typeError("Non bool in and", n.getLine());
         return new BoolTypeNode();
     }
 
@@ -191,13 +200,13 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             t = ((MethodTypeNode) t).fun;
         }
         if (!(t instanceof ArrowTypeNode))
-            throw new TypeException("Invocation of a non-function " + n.id, n.getLine());
+            throw typeError("Invocation of a non-function " + n.id, n.getLine());
         ArrowTypeNode at = (ArrowTypeNode) t;
         if (!(at.parlist.size() == n.arglist.size()))
-            throw new TypeException("Wrong number of parameters in the invocation of " + n.id, n.getLine());
+            throw typeError("Wrong number of parameters in the invocation of " + n.id, n.getLine());
         for (int i = 0; i < n.arglist.size(); i++)
             if (!(isSubtype(visit(n.arglist.get(i)), at.parlist.get(i))))
-                throw new TypeException("Wrong type for " + (i + 1) + "-th parameter in the invocation of " + n.id, n.getLine());
+                throw typeError("Wrong type for " + (i + 1) + "-th parameter in the invocation of " + n.id, n.getLine());
         return at.ret;
     }
 
@@ -206,10 +215,10 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n, n.id);
         TypeNode t = visit(n.entry);
         if (t instanceof ArrowTypeNode || t instanceof MethodTypeNode) {   // da valutare methodtypeNode
-            throw new TypeException("Wrong usage of function/method identifier " + n.id, n.getLine());
+            throw typeError("Wrong usage of function/method identifier " + n.id, n.getLine());
         }
         if (t instanceof ClassTypeNode) {
-            throw new TypeException("Wrong usage of class identifier " + n.id, n.getLine());
+            throw typeError("Wrong usage of class identifier " + n.id, n.getLine());
         }
         return t;
     }
@@ -264,7 +273,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             try {
                 visit(m);
             } catch (TypeException e) {
-                System.out.println("Type checking error in a class declaration: " + e.text);
+                log.accept("Type checking error in a class declaration: " + e.text);
             }
         }
         return null;
@@ -278,10 +287,10 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
                 visit(dec);
             } catch (IncomplException e) {
             } catch (TypeException e) {
-                System.out.println("Type checking error in a method declaration: " + e.text);
+                log.accept("Type checking error in a method declaration: " + e.text);
             }
         if (!isSubtype(visit(n.exp), ckvisit(n.retType)))
-            throw new TypeException("Wrong return type for method " + n.id, n.getLine());
+            throw typeError("Wrong return type for method " + n.id, n.getLine());
         return null;
     }
 
@@ -293,13 +302,13 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             t = ((MethodTypeNode) t).fun;
         }
         if (!(t instanceof ArrowTypeNode))
-            throw new TypeException("Invocation of a non-method " + n.id, n.getLine());
+            throw typeError("Invocation of a non-method " + n.id, n.getLine());
         ArrowTypeNode at = (ArrowTypeNode) t;
         if (!(at.parlist.size() == n.arglist.size()))
-            throw new TypeException("Wrong number of parameters in the invocation of method " + n.id, n.getLine());
+            throw typeError("Wrong number of parameters in the invocation of method " + n.id, n.getLine());
         for (int i = 0; i < n.arglist.size(); i++)
             if (!(isSubtype(visit(n.arglist.get(i)), at.parlist.get(i))))
-                throw new TypeException("Wrong type for " + (i + 1) + "-th parameter in the invocation of method " + n.id, n.getLine());
+                throw typeError("Wrong type for " + (i + 1) + "-th parameter in the invocation of method " + n.id, n.getLine());
         return at.ret;
     }
 
@@ -308,13 +317,13 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n, n.id);
         TypeNode t = visit(n.entry);
         if (!(t instanceof ClassTypeNode))
-            throw new TypeException("Invocation of a non-construction " + n.id, n.getLine());
+            throw typeError("Invocation of a non-construction " + n.id, n.getLine());
         ClassTypeNode ct = (ClassTypeNode) t;
         if (!(ct.fields.size() == n.arglist.size()))
-            throw new TypeException("Wrong number of parameters in the invocation of constructor of class " + n.id, n.getLine());
+            throw typeError("Wrong number of parameters in the invocation of constructor of class " + n.id, n.getLine());
         for (int i = 0; i < n.arglist.size(); i++)
             if (!(isSubtype(visit(n.arglist.get(i)), ct.fields.get(i))))
-                throw new TypeException("Wrong type for " + (i + 1) + "-th parameter in the invocation of constructor " + n.id, n.getLine());
+                throw typeError("Wrong type for " + (i + 1) + "-th parameter in the invocation of constructor " + n.id, n.getLine());
         return new RefTypeNode(n.id);
     }
 
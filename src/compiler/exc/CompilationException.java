@@ -0,0 +1,16 @@
+package compiler.exc;
+
+import java.util.List;
+
+public class CompilationException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public final List<String> errors;
+
+	public CompilationException(List<String> e) {
+		super(e.size() + " front-end errors" + (e.isEmpty() ? "" : ", first: " + e.get(0)));
+		errors = List.copyOf(e);
+	}
+
+}
@@ -3,6 +3,8 @@ package compiler.lib;
 import compiler.AST.*;
 import compiler.exc.*;
 
+import java.util.function.Consumer;
+
 import static compiler.lib.FOOLlib.*;
 
 public class BaseASTVisitor<S,E extends Exception> {
@@ -10,11 +12,14 @@ public class BaseASTVisitor<S,E extends Exception> {
 	private boolean incomplExc; // enables throwing IncomplException
 	protected boolean print;    // enables printing
 	protected String indent;
+	protected Consumer<String> log = System.out::println; // where errors detected by the visit are reported
 
 	protected BaseASTVisitor() {}
 	protected BaseASTVisitor(boolean ie) { incomplExc = ie; }
 	protected BaseASTVisitor(boolean ie, boolean p) { incomplExc = ie; print = p; }
 
+	public void setLog(Consumer<String> log) { this.log = log; }
+
 	protected void printNode(Node n) {
 		System.out.println(indent+extractNodeName(n.getClass().getName()));
 	}
@@ -84,6 +89,7 @@ public class BaseASTVisitor<S,E extends Exception> {
 	public S visitNode(MethodNode n) throws E {throw new UnimplException();}
 	public S visitNode(ClassCallNode node) throws E {throw new UnimplException();}
 	public S visitNode(NewNode n) throws E {throw new UnimplException();}
+	public S visitNode(FieldAccessNode n) throws E {throw new UnimplException();}
 	public S visitNode(EmptyNode n) throws E {throw new UnimplException();}
 
 	public S visitNode(ClassTypeNode n) throws E {throw new UnimplException();}
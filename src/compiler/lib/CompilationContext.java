@@ -0,0 +1,35 @@
+package compiler.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// State of a single compilation: label counters, code of the functions generated so far
+// and number of type errors. A new context is created for each compilation, so that
+// compilations running in the same JVM (also concurrently) do not interfere.
+public class CompilationContext {
+
+	public int typeErrors = 0;
+
+	private int labCount = 0;
+
+	public String freshLabel() {
+		return "label"+(labCount++);
+	}
+
+	private int funlabCount = 0;
+
+	public String freshFunLabel() {
+		return "function"+(funlabCount++);
+	}
+
+	private final List<String> funCode = new ArrayList<>();
+
+	public void putCode(List<String> c) {
+		funCode.add(""); //linea vuota di separazione prima di codice funzione
+		funCode.addAll(c);
+	}
+
+	public List<String> getCode() {
+		return funCode;
+	}
+}
@@ -0,0 +1,107 @@
+package svm;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Output sink that formats printed values straight into a byte buffer, without creating a
+ * String per value, and writes the buffer out in one call when it is full, every flushLines
+ * lines (if flushLines is positive) and on flush(), which ExecuteVM calls when the program
+ * halts or its run ends abnormally.
+ */
+public class BufferedOutputSink implements OutputSink {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+    private static final int MAX_LINE = 11 + NEWLINE.length; // "-2147483648" and the line separator
+
+    private final WritableByteChannel channel;
+    private final OutputStream stream; // flushed after the channel is written, null if writing to a channel
+    private final ByteBuffer buffer;
+    private final int flushLines;
+    private int lines = 0; // written since the last flush
+
+    // buffers the output to a stream (e.g. System.out), flushing it only when the buffer is full
+    public BufferedOutputSink(OutputStream out) {
+        this(Channels.newChannel(out), out, DEFAULT_CAPACITY, 0);
+    }
+
+    // capacity in bytes; flushLines: also flush every flushLines lines, 0 to flush only when full
+    public BufferedOutputSink(WritableByteChannel channel, int capacity, int flushLines) {
+        this(channel, null, capacity, flushLines);
+    }
+
+    private BufferedOutputSink(WritableByteChannel channel, OutputStream stream, int capacity, int flushLines) {
+        if (capacity < MAX_LINE || flushLines < 0)
+            throw new IllegalArgumentException("Invalid buffer: capacity " + capacity + ", flushLines " + flushLines);
+        this.channel = channel;
+        this.stream = stream;
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.flushLines = flushLines;
+    }
+
+    @Override
+    public void print(int value) {
+        if (buffer.remaining() < MAX_LINE) drain();
+        int start = buffer.position();
+        if (value < 0) { // digits are computed on the negative value, which also covers Integer.MIN_VALUE
+            buffer.put((byte) '-');
+            start++;
+        } else value = -value;
+        do {
+            buffer.put((byte) ('0' - value % 10));
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) { // digits were written from the last
+            byte d = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, d);
+        }
+        endLine();
+    }
+
+    @Override
+    public void message(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer.remaining() < NEWLINE.length + 1) drain();
+            char c = text.charAt(i);
+            buffer.put((byte) (c < 128 ? c : '?'));
+        }
+        if (buffer.remaining() < NEWLINE.length) drain();
+        endLine();
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        lines = 0;
+        if (stream != null) {
+            try {
+                stream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void endLine() {
+        buffer.put(NEWLINE);
+        if (flushLines > 0 && ++lines >= flushLines) flush();
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package svm;
+
+/**
+ * Pre-decoded form of an assembled program, used by {@link ExecuteVM#cpuDecoded()}.
+ * The variable-length int[] produced by SVMParser is decoded once into one slot per
+ * instruction, with branch operands already translated into instruction indexes.
+ */
+class DecodedCode {
+
+    final int[] op;    // opcode of each instruction
+    final int[] arg;   // operand: pushed value, or target instruction index for branches
+    final int[] addr;  // code address of each instruction (addr[size] = end of code)
+    final int[] index; // instruction index of each code address (-1 for operand words)
+    final int size;    // number of instructions
+
+    DecodedCode(int[] code) {
+        index = new int[code.length + 1];
+        int n = 0;
+        for (int a = 0; a < code.length; a += 1 + operands(code[a])) {
+            index[a] = n++;
+            for (int k = 1; k <= operands(code[a]) && a + k < code.length; k++) index[a + k] = -1;
+        }
+        index[code.length] = n;
+        size = n;
+        op = new int[n];
+        arg = new int[n];
+        addr = new int[n + 1];
+        int i = 0;
+        for (int a = 0; a < code.length; a += 1 + operands(code[a])) {
+            op[i] = code[a];
+            addr[i] = a;
+            if (operands(code[a]) > 0 && a + 1 < code.length) {
+                arg[i] = isBranch(code[a]) ? index[code[a + 1]] : code[a + 1];
+            }
+            i++;
+        }
+        addr[n] = code.length;
+    }
+
+    // number of operand words following the opcode
+    static int operands(int opcode) {
+        switch (opcode) {
+            case SVMParser.PUSH:
+            case SVMParser.BRANCH:
+            case SVMParser.BRANCHEQ:
+            case SVMParser.BRANCHLESSEQ:
+            case SVMParser.BRANCHGREATEREQ:
+            case SVMParser.LOADWFP:
+            case SVMParser.STOREWFP:
+            case SVMParser.LOADWOFF:
+            case SVMParser.ALLOC:
+            case SVMParser.METHODCALL:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean isBranch(int opcode) {
+        return opcode == SVMParser.BRANCH || opcode == SVMParser.BRANCHEQ || opcode == SVMParser.BRANCHLESSEQ
+                || opcode == SVMParser.BRANCHGREATEREQ;
+    }
+}
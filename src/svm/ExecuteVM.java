@@ -1,25 +1,128 @@
 package svm;
+
+import java.util.Arrays;
+
+// Memory layout: the stack grows down from address MEMSIZE (the compiler relies on it to find
+// the global frame), the heap grows up from MEMSIZE. Both sizes are set at construction: the stack
+// is allocated at once, the heap is allocated on demand, up to its maximum size.
+// memory[] holds addresses [base, MEMSIZE + heap capacity), so address a is at memory[a - base].
+// The stack is at most MEMSIZE words, so that base >= 0: negative addresses, such as null (-1)
+// and the fields of null, are never in memory[] and accessing them stops the program.
+// In garbage-collected mode, objects created by "alloc" that are no longer reachable are reused
+// (see GarbageCollector); otherwise the heap only grows.
 public class ExecuteVM {
     
-    public static final int CODESIZE = 10000;
-    public static final int MEMSIZE = 10000;
+    public static final int MEMSIZE = 1 << 20; // stack bottom, heap start, maximum stack size
+    public static final int DEFAULT_STACKSIZE = 1 << 16;
+    public static final int DEFAULT_HEAPSIZE = 1 << 26;
+    private static final int INITIAL_HEAPSIZE = 1 << 10;
     
     private int[] code;
-    private int[] memory = new int[MEMSIZE];
+    private int[] memory;
+    private final int base;    // address of memory[0]
+    private final int maxSize; // maximum length of memory[]
+    private final GarbageCollector gc; // null if not in garbage-collected mode
+    private InlineCache inlineCache;   // of the last cpuDecoded() run
+    private final OutputSink out;
+    private ExecutionListener listener; // null if none, only used by the reference engine
+    private static final ExecutionListener NO_LISTENER = new ExecutionListener() {}; // for step() without one
     
     private int ip = 0;
     private int sp = MEMSIZE;
     
-    private int hp = 0;       
+    private int hp = MEMSIZE;
     private int fp = MEMSIZE; 
     private int ra;           
     private int tm;
     
     public ExecuteVM(int[] code) {
+      this(code, OutputSink.stdout());
+    }
+    
+    public ExecuteVM(int[] code, OutputSink out) {
+      this(code, out, DEFAULT_STACKSIZE, DEFAULT_HEAPSIZE);
+    }
+    
+    public ExecuteVM(int[] code, OutputSink out, int stackSize, int heapSize) {
+      this(code, out, stackSize, heapSize, false);
+    }
+    
+    public ExecuteVM(int[] code, OutputSink out, int stackSize, int heapSize, boolean collectGarbage) {
+      if (stackSize < 1 || stackSize > MEMSIZE || heapSize < 1 || (long) MEMSIZE + heapSize > Integer.MAX_VALUE - 8)
+        throw new IllegalArgumentException("Invalid memory size: stack " + stackSize + ", heap " + heapSize);
       this.code = code;
+      this.out = out;
+      this.base = MEMSIZE - stackSize;
+      this.maxSize = stackSize + heapSize;
+      this.memory = new int[stackSize + Math.min(heapSize, INITIAL_HEAPSIZE)];
+      this.gc = collectGarbage ? new GarbageCollector(stackSize) : null;
+    }
+    
+    public ExecuteVM(Program program) {
+      this(program.code);
+    }
+    
+    public ExecuteVM(Program program, OutputSink out) {
+      this(program.code, out);
+    }
+    
+    public ExecuteVM(Program program, OutputSink out, int stackSize, int heapSize) {
+      this(program.code, out, stackSize, heapSize);
+    }
+    
+    public ExecuteVM(Program program, OutputSink out, int stackSize, int heapSize, boolean collectGarbage) {
+      this(program.code, out, stackSize, heapSize, collectGarbage);
+    }
+    
+    // runs an object file saved by Program.save, without assembling it again
+    // usage: ExecuteVM file.svmo [stackSize [heapSize [gc]]]
+    // with -Dsvm.profile=name, the program runs on the reference engine with a Profiler, which writes
+    // name.profile and name.collapsed
+    public static void main(String[] args) throws java.io.IOException {
+      int stackSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_STACKSIZE;
+      int heapSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_HEAPSIZE;
+      boolean gc = args.length > 3 && args[3].equals("gc");
+      String profile = System.getProperty("svm.profile");
+      Program program = Program.load(java.nio.file.Paths.get(args[0]));
+      ExecuteVM vm = new ExecuteVM(program, OutputSink.stdout(), stackSize, heapSize, gc);
+      if (profile == null) {
+        vm.cpuDecoded();
+      } else {
+        Profiler profiler = new Profiler(program);
+        vm.setListener(profiler);
+        vm.cpu();
+        profiler.save(profile);
+      }
+    }
+    
+    // reference engine: decodes code[] while executing it; returns false when the program has ended,
+    // true if the listener has suspended the run (calling cpu() again resumes it)
+    public boolean cpu() {
+      return execute(false);
+    }
+    
+    // executes the next instruction with the reference engine, for debuggers; false if the program has ended
+    public boolean step() {
+      return execute(true);
+    }
+    
+    public void setListener(ExecutionListener listener) {
+      this.listener = listener;
+    }
+    
+    private boolean execute(boolean single) {
+      try { // the loop is chosen once per run, so that run() never checks for a listener
+        return listener == null && !single ? run() : trace(listener != null ? listener : NO_LISTENER, single);
+      } catch (ArrayIndexOutOfBoundsException e) { // compiled code only reaches a negative address from null
+        out.message(sp < base ? "Error: stack overflow" : "Error: null pointer");
+        return false;
+      } finally { // after "halt" and after any error
+        out.flush();
+      }
     }
     
-    public void cpu() {
+    // executes instructions until "halt" or an error, with no listener to call
+    private boolean run() {
       while ( true ) {
         int bytecode = code[ip++]; // fetch
         int v1,v2;
@@ -53,10 +156,10 @@ public class ExecuteVM {
             break;
           case SVMParser.STOREW : //
             address = pop();
-            memory[address] = pop();    
+            memory[address - base] = pop();    
             break;
           case SVMParser.LOADW : //
-            push(memory[pop()]);
+            push(memory[pop() - base]);
             break;
           case SVMParser.BRANCH : 
             address = code[ip];
@@ -74,6 +177,12 @@ public class ExecuteVM {
             v2=pop();
             if (v2 <= v1) ip = address;
             break;
+          case SVMParser.BRANCHGREATEREQ :
+            address = code[ip++];
+            v1=pop();
+            v2=pop();
+            if (v2 >= v1) ip = address;
+            break;
           case SVMParser.JS : //
             address = pop();
             ra = ip;
@@ -102,25 +211,509 @@ public class ExecuteVM {
             break;
          case SVMParser.STOREHP : //
             hp=pop();
+            if (hp - base >= memory.length && !growHeap(hp - base)) return false;
             break;
          case SVMParser.LOADHP : //
             push(hp);
             break;
          case SVMParser.PRINT :
-            System.out.println((sp<MEMSIZE)?memory[sp]:"Empty stack!");
+            if (sp<MEMSIZE) out.print(memory[sp - base]); else out.message("Empty stack!");
+            break;
+         case SVMParser.HALT :
+            return false;
+         case SVMParser.LOADWFP : // lfp, push k, add, lw
+            push(memory[fp + code[ip++] - base]);
+            break;
+         case SVMParser.STOREWFP : // lfp, push k, add, sw
+            memory[fp + code[ip++] - base] = pop();
+            break;
+         case SVMParser.LOADWOFF : // push k, add, lw
+            address = pop() + code[ip++];
+            push(memory[address - base]);
+            break;
+         case SVMParser.HEAPPUSH : // lhp, sw, lhp, push 1, add, shp
+            memory[hp++ - base] = pop();
+            if (hp - base >= memory.length && !growHeap(hp - base)) return false;
+            break;
+         case SVMParser.METHODCALL : // lw, push k, add, lw, js
+            address = memory[memory[pop() - base] + code[ip++] - base];
+            ra = ip;
+            ip = address;
+            break;
+         case SVMParser.ALLOC : // pops the dispatch pointer and the fields, pushes the new object
+            v1 = code[ip++];
+            address = allocate(v1 + 1, sp - base, tm);
+            if (address < 0) return false;
+            address += base + v1;
+            memory[address - base] = pop();
+            for (int f = v1 - 1; f >= 0; f--) memory[address - base - 1 - f] = pop();
+            push(address);
+            break;
+         case SVMParser.DUP : // stm, ltm, ltm
+            tm = pop();
+            push(tm);
+            push(tm);
+            break;
+          case SVMParser.EQUAL :
+            v1=pop();
+            v2=pop();
+            push(v2 == v1 ? 1 : 0);
+            break;
+          case SVMParser.LESSEQ :
+            v1=pop();
+            v2=pop();
+            push(v2 <= v1 ? 1 : 0);
+            break;
+          case SVMParser.LESS :
+            v1=pop();
+            v2=pop();
+            push(v2 < v1 ? 1 : 0);
+            break;
+          case SVMParser.NOT :
+            push(pop() == 0 ? 1 : 0);
+            break;
+          case SVMParser.AND :
+            v1=pop();
+            v2=pop();
+            push(v2 == 1 && v1 == 1 ? 1 : 0);
+            break;
+          case SVMParser.OR :
+            v1=pop();
+            v2=pop();
+            push(v2 == 1 || v1 == 1 ? 1 : 0);
+            break;
+        }
+      }
+    } 
+    
+    // as run(), but calls the listener before each instruction and before each memory write; false
+    // at "halt" or on an error, true if the listener has suspended the run or, if single, once the
+    // first instruction has been executed
+    private boolean trace(ExecutionListener listener, boolean single) {
+      while ( true ) {
+        if (!single && !listener.beforeStep(ip)) return true;
+        int bytecode = code[ip++]; // fetch
+        int v1,v2;
+        int address;
+        switch ( bytecode ) {
+          case SVMParser.PUSH:
+            push(listener, code[ip++]);
+            break;
+          case SVMParser.POP:
+            pop();
+            break;
+          case SVMParser.ADD :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 + v1);
+            break;
+          case SVMParser.MULT :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 * v1);
+            break;
+          case SVMParser.DIV :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 / v1);
+            break;
+          case SVMParser.SUB :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 - v1);
+            break;
+          case SVMParser.STOREW : //
+            address = pop();
+            write(listener, address, pop());
+            break;
+          case SVMParser.LOADW : //
+            push(listener, memory[pop() - base]);
+            break;
+          case SVMParser.BRANCH : 
+            address = code[ip];
+            ip = address;
+            break;
+          case SVMParser.BRANCHEQ :
+            address = code[ip++];
+            v1=pop();
+            v2=pop();
+            if (v2 == v1) ip = address;
+            break;
+          case SVMParser.BRANCHLESSEQ :
+            address = code[ip++];
+            v1=pop();
+            v2=pop();
+            if (v2 <= v1) ip = address;
+            break;
+          case SVMParser.BRANCHGREATEREQ :
+            address = code[ip++];
+            v1=pop();
+            v2=pop();
+            if (v2 >= v1) ip = address;
+            break;
+          case SVMParser.JS : //
+            address = pop();
+            ra = ip;
+            ip = address;
+            break;
+         case SVMParser.STORERA : //
+            ra=pop();
+            break;
+         case SVMParser.LOADRA : //
+            push(listener, ra);
+            break;
+         case SVMParser.STORETM : 
+            tm=pop();
+            break;
+         case SVMParser.LOADTM : 
+            push(listener, tm);
+            break;
+         case SVMParser.LOADFP : //
+            push(listener, fp);
+            break;
+         case SVMParser.STOREFP : //
+            fp=pop();
+            break;
+         case SVMParser.COPYFP : //
+            fp=sp;
+            break;
+         case SVMParser.STOREHP : //
+            hp=pop();
+            if (hp - base >= memory.length && !growHeap(hp - base)) return false;
+            break;
+         case SVMParser.LOADHP : //
+            push(listener, hp);
+            break;
+         case SVMParser.PRINT :
+            if (sp<MEMSIZE) out.print(memory[sp - base]); else out.message("Empty stack!");
             break;
          case SVMParser.HALT :
-            return;
+            return false;
+         case SVMParser.LOADWFP : // lfp, push k, add, lw
+            push(listener, memory[fp + code[ip++] - base]);
+            break;
+         case SVMParser.STOREWFP : // lfp, push k, add, sw
+            write(listener, fp + code[ip++], pop());
+            break;
+         case SVMParser.LOADWOFF : // push k, add, lw
+            address = pop() + code[ip++];
+            push(listener, memory[address - base]);
+            break;
+         case SVMParser.HEAPPUSH : // lhp, sw, lhp, push 1, add, shp
+            write(listener, hp++, pop());
+            if (hp - base >= memory.length && !growHeap(hp - base)) return false;
+            break;
+         case SVMParser.METHODCALL : // lw, push k, add, lw, js
+            address = memory[memory[pop() - base] + code[ip++] - base];
+            ra = ip;
+            ip = address;
+            break;
+         case SVMParser.ALLOC : // pops the dispatch pointer and the fields, pushes the new object
+            v1 = code[ip++];
+            address = allocate(v1 + 1, sp - base, tm);
+            if (address < 0) return false;
+            address += base + v1;
+            write(listener, address, pop());
+            for (int f = v1 - 1; f >= 0; f--) write(listener, address - 1 - f, pop());
+            push(listener, address);
+            break;
+         case SVMParser.DUP : // stm, ltm, ltm
+            tm = pop();
+            push(listener, tm);
+            push(listener, tm);
+            break;
+          case SVMParser.EQUAL :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 == v1 ? 1 : 0);
+            break;
+          case SVMParser.LESSEQ :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 <= v1 ? 1 : 0);
+            break;
+          case SVMParser.LESS :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 < v1 ? 1 : 0);
+            break;
+          case SVMParser.NOT :
+            push(listener, pop() == 0 ? 1 : 0);
+            break;
+          case SVMParser.AND :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 == 1 && v1 == 1 ? 1 : 0);
+            break;
+          case SVMParser.OR :
+            v1=pop();
+            v2=pop();
+            push(listener, v2 == 1 || v1 == 1 ? 1 : 0);
+            break;
         }
+        if (single) return true;
       }
     } 
     
+    // pre-decoded engine: same semantics as cpu(), but the program is decoded once
+    // (see DecodedCode) and registers are kept in local variables while running
+    public void cpuDecoded() {
+      DecodedCode dc = new DecodedCode(code);
+      final InlineCache ic = inlineCache = new InlineCache(dc);
+      final int[] op = dc.op, arg = dc.arg, addr = dc.addr, index = dc.index;
+      final int b = base, top = MEMSIZE - base;
+      int[] mem = memory;
+      int pc = index[ip];
+      // sp, fp and hp hold memory[] indexes, values on the stack are addresses
+      int sp = this.sp - b, fp = this.fp - b, hp = this.hp - b, ra = this.ra, tm = this.tm;
+      int v1, v2;
+      try {
+        while ( true ) {
+          int i = pc++;
+          switch ( op[i] ) {
+            case SVMParser.PUSH:
+              mem[--sp] = arg[i];
+              break;
+            case SVMParser.POP:
+              sp++;
+              break;
+            case SVMParser.ADD :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] + v1;
+              break;
+            case SVMParser.MULT :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] * v1;
+              break;
+            case SVMParser.DIV :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] / v1;
+              break;
+            case SVMParser.SUB :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] - v1;
+              break;
+            case SVMParser.STOREW :
+              v1 = mem[sp++];
+              mem[v1 - b] = mem[sp++];
+              break;
+            case SVMParser.LOADW :
+              mem[sp] = mem[mem[sp] - b];
+              break;
+            case SVMParser.BRANCH :
+              pc = arg[i];
+              break;
+            case SVMParser.BRANCHEQ :
+              v1 = mem[sp++];
+              v2 = mem[sp++];
+              if (v2 == v1) pc = arg[i];
+              break;
+            case SVMParser.BRANCHLESSEQ :
+              v1 = mem[sp++];
+              v2 = mem[sp++];
+              if (v2 <= v1) pc = arg[i];
+              break;
+            case SVMParser.BRANCHGREATEREQ :
+              v1 = mem[sp++];
+              v2 = mem[sp++];
+              if (v2 >= v1) pc = arg[i];
+              break;
+            case SVMParser.JS :
+              ra = addr[pc];
+              pc = index[mem[sp++]];
+              break;
+            case SVMParser.STORERA :
+              ra = mem[sp++];
+              break;
+            case SVMParser.LOADRA :
+              mem[--sp] = ra;
+              break;
+            case SVMParser.STORETM :
+              tm = mem[sp++];
+              break;
+            case SVMParser.LOADTM :
+              mem[--sp] = tm;
+              break;
+            case SVMParser.LOADFP :
+              mem[--sp] = fp + b;
+              break;
+            case SVMParser.STOREFP :
+              fp = mem[sp++] - b;
+              break;
+            case SVMParser.COPYFP :
+              fp = sp;
+              break;
+            case SVMParser.STOREHP :
+              hp = mem[sp++] - b;
+              if (hp >= mem.length) {
+                if (!growHeap(hp)) return;
+                mem = memory;
+              }
+              break;
+            case SVMParser.LOADHP :
+              mem[--sp] = hp + b;
+              break;
+            case SVMParser.PRINT :
+              if (sp<top) out.print(mem[sp]); else out.message("Empty stack!");
+              break;
+            case SVMParser.HALT :
+              return;
+            case SVMParser.LOADWFP :
+              mem[--sp] = mem[fp + arg[i]];
+              break;
+            case SVMParser.STOREWFP :
+              mem[fp + arg[i]] = mem[sp++];
+              break;
+            case SVMParser.LOADWOFF :
+              mem[sp] = mem[mem[sp] + arg[i] - b];
+              break;
+            case SVMParser.HEAPPUSH :
+              mem[hp++] = mem[sp++];
+              if (hp >= mem.length) {
+                if (!growHeap(hp)) return;
+                mem = memory;
+              }
+              break;
+            case SVMParser.METHODCALL :
+              v1 = mem[mem[sp++] - b]; // dispatch pointer
+              ra = addr[pc];
+              pc = ic.lookup(i, v1, arg[i], mem, b, index);
+              break;
+            case SVMParser.ALLOC :
+              v1 = arg[i];
+              this.hp = hp + b;
+              v2 = allocate(v1 + 1, sp, tm) + v1; // memory[] index of the object pointer
+              if (v2 < v1) return;
+              hp = this.hp - b;
+              mem = memory;
+              mem[v2] = mem[sp];
+              System.arraycopy(mem, sp + 1, mem, v2 - v1, v1);
+              sp += v1;
+              mem[sp] = v2 + b;
+              break;
+            case SVMParser.DUP :
+              tm = mem[sp];
+              mem[--sp] = tm;
+              break;
+            case SVMParser.EQUAL :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] == v1 ? 1 : 0;
+              break;
+            case SVMParser.LESSEQ :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] <= v1 ? 1 : 0;
+              break;
+            case SVMParser.LESS :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] < v1 ? 1 : 0;
+              break;
+            case SVMParser.NOT :
+              mem[sp] = mem[sp] == 0 ? 1 : 0;
+              break;
+            case SVMParser.AND :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] == 1 && v1 == 1 ? 1 : 0;
+              break;
+            case SVMParser.OR :
+              v1 = mem[sp++];
+              mem[sp] = mem[sp] == 1 || v1 == 1 ? 1 : 0;
+              break;
+          }
+        }
+      } catch (ArrayIndexOutOfBoundsException e) { // as in execute()
+        out.message(sp < 0 ? "Error: stack overflow" : "Error: null pointer");
+      } finally { // registers are written back, so that the VM state is observable after the run
+        if (pc >= 0 && pc <= dc.size) this.ip = addr[pc];
+        this.sp = sp + b; this.fp = fp + b; this.hp = hp + b; this.ra = ra; this.tm = tm;
+        out.flush(); // after "halt" and after any error
+      }
+    }
+    
+    // hit/miss counters of the method call sites in the last cpuDecoded() run (null before it)
+    public InlineCache inlineCache() {
+      return inlineCache;
+    }
+    
+    // reserves size heap words and returns the memory[] index of the first one, or -1 (after
+    // reporting it) if the heap is exhausted; in garbage-collected mode, the objects referenced
+    // from the stack words from index sp on and from tm stay alive
+    private int allocate(int size, int sp, int tm) {
+      int start = -1;
+      if (gc != null) {
+        start = gc.reuse(size);
+        if (start < 0 && hp - base + size >= memory.length) {
+          int freed = gc.collect(memory, base, sp, tm);
+          start = gc.reuse(size);
+          if (freed < (memory.length - (MEMSIZE - base)) / 2 && memory.length < maxSize) // mostly live: grow now, not to collect too often
+            memory = Arrays.copyOf(memory, (int) Math.min(maxSize, 2L * memory.length));
+        }
+      }
+      if (start < 0) {
+        start = hp - base;
+        hp += size;
+        if (hp - base >= memory.length && !growHeap(hp - base)) return -1;
+      }
+      if (gc != null) gc.add(start + size - 1);
+      return start;
+    }
+    
+    // enlarges memory[] so that index i is in the heap; false (after reporting it) if the heap
+    // would exceed its maximum size
+    private boolean growHeap(int i) {
+      if (i >= maxSize) {
+        out.message("Error: out of memory");
+        return false;
+      }
+      memory = Arrays.copyOf(memory, (int) Math.min(maxSize, Math.max(i + 1L, 2L * memory.length)));
+      return true;
+    }
+    
     private int pop() {
-      return memory[sp++];
+      return memory[sp++ - base];
     }
     
     private void push(int v) {
-      memory[--sp] = v;
+      memory[--sp - base] = v;
+    }
+    
+    private void push(ExecutionListener listener, int v) {
+      write(listener, --sp, v);
+    }
+    
+    // memory write of trace()
+    private void write(ExecutionListener listener, int address, int v) {
+      listener.memoryWritten(address, memory[address - base]);
+      memory[address - base] = v;
+    }
+    
+    // machine state, for debuggers
+    
+    public int ip() { return ip; }
+    public int sp() { return sp; }
+    public int fp() { return fp; }
+    public int hp() { return hp; }
+    public int ra() { return ra; }
+    public int tm() { return tm; }
+    
+    public void setRegisters(int ip, int sp, int fp, int hp, int ra, int tm) {
+      this.ip = ip; this.sp = sp; this.fp = fp; this.hp = hp; this.ra = ra; this.tm = tm;
+    }
+    
+    // word at address, 0 for heap words not allocated yet
+    public int load(int address) {
+      return address - base < memory.length ? memory[address - base] : 0;
+    }
+    
+    public void store(int address, int v) {
+      memory[address - base] = v;
+    }
+    
+    public int[] saveMemory() {
+      return memory.clone();
+    }
+    
+    public void restoreMemory(int[] saved) {
+      memory = saved.clone();
     }
     
 }
\ No newline at end of file
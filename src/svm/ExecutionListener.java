@@ -0,0 +1,18 @@
+package svm;
+
+/**
+ * Hooks of the reference engine of {@link ExecuteVM} (cpu() and step()), used by debuggers
+ * such as the visual SVM. The pre-decoded engine (cpuDecoded()) never calls them, and without a
+ * listener the reference engine runs a loop that does not check for one.
+ */
+public interface ExecutionListener {
+
+    // called by cpu() before each instruction, at code address ip: false suspends the run
+    // before the instruction, and cpu() can be called again to resume it
+    default boolean beforeStep(int ip) {
+        return true;
+    }
+
+    // called before each write of the memory word at address, with its current value
+    default void memoryWritten(int address, int oldValue) {}
+}
@@ -0,0 +1,97 @@
+package svm;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mark-sweep collector used by {@link ExecuteVM} in garbage-collected mode.
+ * It manages the objects created by "alloc"; other heap words (the dispatch tables written
+ * with hpush/shp) are never freed.
+ *
+ * Roots are the stack words between sp and MEMSIZE and the TM register. They are scanned
+ * conservatively: any value equal to the address of an object keeps it alive, so objects are
+ * never moved. Object fields are scanned precisely, using the layout map that the code generator
+ * writes before each dispatch table: dispatch pointer - 1 holds the number of fields, dispatch
+ * pointer - 2 - i is 1 if field i holds an object pointer.
+ *
+ * Freed blocks are kept in free lists by size and reused best-fit (splitting larger blocks);
+ * adjacent free blocks are not coalesced.
+ */
+class GarbageCollector {
+
+    private final int heapStart; // memory[] index of address MEMSIZE
+    private final BitSet objects = new BitSet(); // object pointers (address - MEMSIZE) of allocated objects
+    private final BitSet marked = new BitSet();
+    private final TreeMap<Integer, Blocks> free = new TreeMap<>(); // block size -> free blocks
+    private int[] grey = new int[64]; // marked objects whose fields are still to be scanned
+    private int greyCount;
+    int collections;
+
+    GarbageCollector(int heapStart) {
+        this.heapStart = heapStart;
+    }
+
+    // records the object with pointer at memory[] index object
+    void add(int object) {
+        objects.set(object - heapStart);
+    }
+
+    // memory[] index of a free block of size words, or -1 if there is none
+    int reuse(int size) {
+        Map.Entry<Integer, Blocks> entry = free.ceilingEntry(size);
+        if (entry == null) return -1;
+        Blocks blocks = entry.getValue();
+        int start = blocks.start[--blocks.count];
+        if (blocks.count == 0) free.remove(entry.getKey());
+        if (entry.getKey() > size) release(start + size, entry.getKey() - size);
+        return start;
+    }
+
+    // frees the objects not reachable from the roots and returns the number of words freed;
+    // sp is a memory[] index, base the address of memory[0]
+    int collect(int[] mem, int base, int sp, int tm) {
+        collections++;
+        marked.clear();
+        for (int i = sp; i < heapStart; i++) mark(mem[i]);
+        mark(tm);
+        while (greyCount > 0) {
+            int object = grey[--greyCount];
+            int table = mem[object] - base;
+            int fields = mem[table - 1];
+            for (int f = 0; f < fields; f++) {
+                if (mem[table - 2 - f] != 0) mark(mem[object - 1 - f]);
+            }
+        }
+        int freed = 0;
+        for (int o = objects.nextSetBit(0); o >= 0; o = objects.nextSetBit(o + 1)) {
+            if (marked.get(o)) continue;
+            int object = o + heapStart;
+            int size = mem[mem[object] - base - 1] + 1;
+            objects.clear(o);
+            release(object - size + 1, size);
+            freed += size;
+        }
+        return freed;
+    }
+
+    private void mark(int value) {
+        int o = value - ExecuteVM.MEMSIZE;
+        if (o < 0 || !objects.get(o) || marked.get(o)) return;
+        marked.set(o);
+        if (greyCount == grey.length) grey = Arrays.copyOf(grey, 2 * greyCount);
+        grey[greyCount++] = o + heapStart;
+    }
+
+    private void release(int start, int size) {
+        Blocks blocks = free.computeIfAbsent(size, s -> new Blocks());
+        if (blocks.count == blocks.start.length) blocks.start = Arrays.copyOf(blocks.start, 2 * blocks.count);
+        blocks.start[blocks.count++] = start;
+    }
+
+    private static class Blocks {
+        int[] start = new int[16];
+        int count;
+    }
+}
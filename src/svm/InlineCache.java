@@ -0,0 +1,76 @@
+package svm;
+
+import java.util.Arrays;
+
+/**
+ * Inline caches of the "mcall" call sites, used by {@link ExecuteVM#cpuDecoded()}.
+ * Each call site remembers up to WAYS dispatch tables it has been called with, together with
+ * the (already decoded) method entry found in each of them: a call with one of those tables
+ * jumps straight to the method, without reading the dispatch table (hit); otherwise the table
+ * is read and, if there is room, the entry is added (miss). Sites called with more than WAYS
+ * classes keep missing for the extra ones.
+ * Hit and miss counters of each call site are available after (or during) the run.
+ */
+public class InlineCache {
+
+    private static final int WAYS = 4;
+
+    private final int[] addr;    // code address of each call site
+    private final int[] site;    // call site number of each instruction (-1 if not a mcall)
+    private final int[] table;   // dispatch table addresses, WAYS per site
+    private final int[] target;  // method entry (instruction index) for each cached table
+    private final int[] entries; // cached tables of each site
+    private final long[] hits, misses;
+
+    InlineCache(DecodedCode dc) {
+        site = new int[dc.size];
+        int sites = 0;
+        for (int i = 0; i < dc.size; i++) site[i] = dc.op[i] == SVMParser.METHODCALL ? sites++ : -1;
+        addr = new int[sites];
+        for (int i = 0; i < dc.size; i++) if (site[i] >= 0) addr[site[i]] = dc.addr[i];
+        table = new int[WAYS * sites];
+        target = new int[WAYS * sites];
+        entries = new int[sites];
+        hits = new long[sites];
+        misses = new long[sites];
+    }
+
+    // instruction index of the method called by instruction i on an object with dispatch table
+    // dptr: the method address is read at dptr + offset (memory[] index: - base) on a miss
+    int lookup(int i, int dptr, int offset, int[] mem, int base, int[] index) {
+        int s = site[i], first = WAYS * s;
+        for (int k = first; k < first + entries[s]; k++) {
+            if (table[k] == dptr) {
+                hits[s]++;
+                return target[k];
+            }
+        }
+        misses[s]++;
+        int t = index[mem[dptr + offset - base]];
+        if (entries[s] < WAYS) {
+            int k = first + entries[s]++;
+            table[k] = dptr;
+            target[k] = t;
+        }
+        return t;
+    }
+
+    // code addresses of the call sites, in increasing order
+    public int[] callSites() {
+        return addr.clone();
+    }
+
+    public long hits(int callSite) {
+        return hits[siteAt(callSite)];
+    }
+
+    public long misses(int callSite) {
+        return misses[siteAt(callSite)];
+    }
+
+    private int siteAt(int address) {
+        int s = Arrays.binarySearch(addr, address);
+        if (s < 0) throw new IllegalArgumentException("No call site at address " + address);
+        return s;
+    }
+}
@@ -0,0 +1,19 @@
+package svm;
+
+/**
+ * Destination of the output produced by the PRINT instruction.
+ * ExecuteVM calls flush() when the program halts and when its run ends abnormally.
+ */
+public interface OutputSink {
+
+    void print(int value);
+
+    void message(String text); // diagnostics such as printing an empty stack
+
+    default void flush() {} // writes out the output buffered so far, if any
+
+    // standard output, buffered (see BufferedOutputSink)
+    static OutputSink stdout() {
+        return new BufferedOutputSink(System.out);
+    }
+}
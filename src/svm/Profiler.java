@@ -0,0 +1,182 @@
+package svm;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Execution profiler, attached to the reference engine of {@link ExecuteVM} as its listener
+ * (runs without it, e.g. with cpuDecoded(), are not affected at all).
+ * It counts the instructions executed at each code address, from which the counts per opcode
+ * and per function are derived: a function is the code from one of the "function" labels
+ * generated by the compiler (FOOLlib.freshFunLabel) up to the next one, the code before the
+ * first one is "main". Calls are followed (js and mcall to a function label, b to a function
+ * label for tail calls, js elsewhere for returns) to also count the instructions per call stack.
+ *
+ * Results are written as a flat profile and as collapsed stacks ("main;function2;function5 count"
+ * per line), the input format of flame graph tools.
+ */
+public class Profiler implements ExecutionListener {
+
+    public static final String FLAT_EXTENSION = ".profile";
+    public static final String COLLAPSED_EXTENSION = ".collapsed";
+
+    private static final String MAIN = "main";
+    private static final String FUNCTION_PREFIX = "function";
+    private static final int HOT_ADDRESSES = 20;
+
+    private final int[] code;
+    private final long[] counts;    // instructions executed at each code address
+    private final List<String> functions = new ArrayList<>(); // names, main first
+    private final int[] functionOf; // function of each code address
+    private final int[] entry;      // function starting at each code address, -1 if none
+    private final long[] calls;     // of each function
+
+    // call tree: one node per call stack, node 0 is main
+    private int[] parent = new int[64];
+    private int[] function = new int[64];
+    private long[] self = new long[64]; // instructions executed with this call stack
+    private int nodes = 1;
+    private final Map<Long, Integer> children = new HashMap<>();
+    private int node = 0;
+    private int lastOp = -1;
+
+    public Profiler(Program program) {
+        code = program.code;
+        counts = new long[code.length];
+        functionOf = new int[code.length];
+        entry = new int[code.length + 1];
+        Arrays.fill(entry, -1);
+        functions.add(MAIN);
+        TreeMap<Integer, String> starts = new TreeMap<>();
+        program.labels.forEach((name, address) -> {
+            if (name.startsWith(FUNCTION_PREFIX)) starts.put(address, name);
+        });
+        for (Map.Entry<Integer, String> e : starts.entrySet()) {
+            entry[e.getKey()] = functions.size();
+            functions.add(e.getValue());
+        }
+        int f = 0;
+        for (int a = 0; a < code.length; a++) {
+            if (entry[a] >= 0) f = entry[a];
+            functionOf[a] = f;
+        }
+        calls = new long[functions.size()];
+        calls[0] = 1;
+    }
+
+    @Override
+    public boolean beforeStep(int ip) {
+        counts[ip]++;
+        switch (lastOp) {
+            case SVMParser.JS:
+            case SVMParser.METHODCALL:
+                if (entry[ip] >= 0) node = child(node, entry[ip]);
+                else if (node != 0) node = parent[node]; // return
+                break;
+            case SVMParser.BRANCH:
+                if (entry[ip] >= 0) node = child(node != 0 ? parent[node] : 0, entry[ip]); // tail call
+                break;
+        }
+        self[node]++;
+        lastOp = code[ip];
+        return true;
+    }
+
+    private int child(int n, int f) {
+        calls[f]++;
+        Integer c = children.get((long) n << 32 | f);
+        if (c != null) return c;
+        if (nodes == parent.length) {
+            parent = Arrays.copyOf(parent, 2 * nodes);
+            function = Arrays.copyOf(function, 2 * nodes);
+            self = Arrays.copyOf(self, 2 * nodes);
+        }
+        parent[nodes] = n;
+        function[nodes] = f;
+        children.put((long) n << 32 | f, nodes);
+        return nodes++;
+    }
+
+    public long instructions() {
+        long total = 0;
+        for (long c : counts) total += c;
+        return total;
+    }
+
+    // writes file + FLAT_EXTENSION and file + COLLAPSED_EXTENSION
+    public void save(String file) throws IOException {
+        try (Writer w = Files.newBufferedWriter(Paths.get(file + FLAT_EXTENSION))) {
+            writeFlatProfile(w);
+        }
+        try (Writer w = Files.newBufferedWriter(Paths.get(file + COLLAPSED_EXTENSION))) {
+            writeCollapsedStacks(w);
+        }
+    }
+
+    public void writeFlatProfile(Writer w) {
+        PrintWriter out = new PrintWriter(w);
+        long total = instructions();
+        out.printf("%d instructions executed%n", total);
+
+        long[] perFunction = new long[functions.size()];
+        long[] perOpcode = new long[SVMParser.VOCABULARY.getMaxTokenType() + 1];
+        for (int a = 0; a < code.length; a++) {
+            perFunction[functionOf[a]] += counts[a];
+            if (counts[a] > 0) perOpcode[code[a]] += counts[a];
+        }
+
+        out.printf("%nPer function (self):%n%14s %8s %12s  %s%n", "instructions", "%", "calls", "function");
+        for (int f : sortedByCount(perFunction)) {
+            out.printf("%14d %7.2f%% %12d  %s%n", perFunction[f], percent(perFunction[f], total), calls[f], functions.get(f));
+        }
+
+        out.printf("%nPer opcode:%n%14s %8s  %s%n", "instructions", "%", "opcode");
+        for (int op : sortedByCount(perOpcode)) {
+            out.printf("%14d %7.2f%%  %s%n", perOpcode[op], percent(perOpcode[op], total), opcodeName(op));
+        }
+
+        out.printf("%nHottest addresses:%n%14s %8s %8s  %-12s %s%n", "instructions", "%", "address", "function", "instruction");
+        int[] hot = sortedByCount(counts);
+        for (int k = 0; k < Math.min(HOT_ADDRESSES, hot.length); k++) {
+            int a = hot[k];
+            String instruction = opcodeName(code[a]);
+            if (DecodedCode.operands(code[a]) > 0 && a + 1 < code.length) instruction += " " + code[a + 1];
+            out.printf("%14d %7.2f%% %8d  %-12s %s%n", counts[a], percent(counts[a], total), a,
+                    functions.get(functionOf[a]), instruction);
+        }
+        out.flush();
+    }
+
+    public void writeCollapsedStacks(Writer w) {
+        PrintWriter out = new PrintWriter(w);
+        for (int n = 0; n < nodes; n++) {
+            if (self[n] == 0) continue;
+            Deque<String> stack = new ArrayDeque<>();
+            for (int m = n; m != 0; m = parent[m]) stack.push(functions.get(function[m]));
+            stack.push(MAIN);
+            out.print(String.join(";", stack));
+            out.print(' ');
+            out.println(self[n]);
+        }
+        out.flush();
+    }
+
+    // indexes with a positive count, by decreasing count
+    private static int[] sortedByCount(long[] c) {
+        return java.util.stream.IntStream.range(0, c.length).filter(i -> c[i] > 0).boxed()
+                .sorted((i, j) -> Long.compare(c[j], c[i])).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0 : 100.0 * count / total;
+    }
+
+    private static String opcodeName(int op) {
+        String name = SVMParser.VOCABULARY.getLiteralName(op);
+        return name != null ? name.substring(1, name.length() - 1) : SVMParser.VOCABULARY.getSymbolicName(op);
+    }
+}
@@ -0,0 +1,105 @@
+package svm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * An assembled SVM program: code with labels already resolved, the label table and,
+ * optionally, the source map (code address -> line of the assembly text).
+ * It can be saved in, and loaded from, a binary object file, so that a program can be
+ * run without lexing and parsing its assembly again.
+ *
+ * Object file layout (big-endian ints):
+ *   magic, version, instruction set fingerprint, flags (bit 0: source map present),
+ *   code length, code words,
+ *   label count, for each label: address, name length, name bytes (UTF-8),
+ *   source map words (if present, one per code word).
+ */
+public class Program {
+
+    public static final String EXTENSION = ".svmo";
+
+    private static final int MAGIC = 0x53564D4F; // "SVMO"
+    private static final int VERSION = 1;
+    private static final int HAS_SOURCE_MAP = 1;
+
+    public final int[] code;
+    public final Map<String, Integer> labels; // label name -> code address
+    public final int[] sourceMap;             // null if not available
+
+    public Program(int[] code, Map<String, Integer> labels, int[] sourceMap) {
+        this.code = code;
+        this.labels = Collections.unmodifiableMap(new TreeMap<>(labels));
+        this.sourceMap = sourceMap;
+    }
+
+    public void save(Path file) throws IOException {
+        List<byte[]> names = new ArrayList<>();
+        int size = 4 * (6 + code.length) + (sourceMap != null ? 4 * code.length : 0);
+        for (String l : labels.keySet()) {
+            byte[] name = l.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += 8 + name.length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(instructionSet())
+                .putInt(sourceMap != null ? HAS_SOURCE_MAP : 0)
+                .putInt(code.length);
+        buf.asIntBuffer().put(code);
+        buf.position(buf.position() + 4 * code.length);
+        buf.putInt(labels.size());
+        int k = 0;
+        for (int address : labels.values()) {
+            byte[] name = names.get(k++);
+            buf.putInt(address).putInt(name.length).put(name);
+        }
+        if (sourceMap != null) for (int j = 0; j < code.length; j++) buf.putInt(sourceMap[j]);
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    public static Program load(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        if (buf.remaining() < 20 || buf.getInt() != MAGIC)
+            throw new IOException(file + " is not an SVM object file");
+        if (buf.getInt() != VERSION || buf.getInt() != instructionSet())
+            throw new IOException(file + " was built for a different SVM version, assemble it again");
+        int flags = buf.getInt();
+        int[] code = new int[buf.getInt()];
+        buf.asIntBuffer().get(code);
+        buf.position(buf.position() + 4 * code.length);
+        Map<String, Integer> labels = new HashMap<>();
+        for (int n = buf.getInt(); n > 0; n--) {
+            int address = buf.getInt();
+            byte[] name = new byte[buf.getInt()];
+            buf.get(name);
+            labels.put(new String(name, StandardCharsets.UTF_8), address);
+        }
+        int[] sourceMap = null;
+        if ((flags & HAS_SOURCE_MAP) != 0) {
+            sourceMap = new int[code.length];
+            buf.asIntBuffer().get(sourceMap);
+        }
+        return new Program(code, labels, sourceMap);
+    }
+
+    // fingerprint of the opcode numbering, which changes whenever SVM.g4 gets new instructions
+    private static int instructionSet() {
+        List<String> names = new ArrayList<>();
+        for (int t = 1; t <= SVMParser.VOCABULARY.getMaxTokenType(); t++)
+            names.add(SVMParser.VOCABULARY.getSymbolicName(t));
+        return names.hashCode();
+    }
+}
@@ -9,10 +9,29 @@ public int lexicalErrors=0;
 }
    
 @parser::members { 
-public int[] code = new int[ExecuteVM.CODESIZE];    
+public int[] code = new int[1024]; // code and sourceMap grow while assembling, then trimmed to the program size
+public int[] sourceMap = new int[1024]; // line of the assembly text (from 0) of each code word
 private int i = 0;
 private Map<String,Integer> labelDef = new HashMap<>();
 private Map<Integer,String> labelRef = new HashMap<>();
+
+private void emit(int word) {
+  if (i == code.length) {
+    code = Arrays.copyOf(code, 2 * code.length);
+    sourceMap = Arrays.copyOf(sourceMap, 2 * sourceMap.length);
+  }
+  sourceMap[i] = _ctx.start.getLine() - 1;
+  code[i++] = word;
+}
+
+private void emitLabel(String label) { // placeholder, set to the label address at the end
+  labelRef.put(i, label);
+  emit(0);
+}
+
+public Program program() { // assembled program, to be run or saved as object file
+  return new Program(Arrays.copyOf(code, i), labelDef, Arrays.copyOf(sourceMap, i));
+}
 }
 
 /*------------------------------------------------------------------
@@ -21,39 +40,61 @@ private Map<Integer,String> labelRef = new HashMap<>();
    
 assembly: instruction* EOF 	{ for (Integer j: labelRef.keySet()) 
 								code[j]=labelDef.get(labelRef.get(j)); 
+							  code = Arrays.copyOf(code, i);
+							  sourceMap = Arrays.copyOf(sourceMap, i);
 							} ;
 
 instruction : 
-        PUSH n=INTEGER   {code[i++] = PUSH; 
-			              code[i++] = Integer.parseInt($n.text);}
-	  | PUSH l=LABEL    {code[i++] = PUSH; 
-	    		             labelRef.put(i++,$l.text);} 		     
-	  | POP		    {code[i++] = POP;}	
-	  | ADD		    {code[i++] = ADD;}
-	  | SUB		    {code[i++] = SUB;}
-	  | MULT	    {code[i++] = MULT;}
-	  | DIV		    {code[i++] = DIV;}
-	  | STOREW	  {code[i++] = STOREW;} //
-	  | LOADW           {code[i++] = LOADW;} //
+        PUSH n=INTEGER   {emit(PUSH); 
+			              emit(Integer.parseInt($n.text));}
+	  | PUSH l=LABEL    {emit(PUSH); 
+	    		             emitLabel($l.text);} 		     
+	  | POP		    {emit(POP);}	
+	  | ADD		    {emit(ADD);}
+	  | SUB		    {emit(SUB);}
+	  | MULT	    {emit(MULT);}
+	  | DIV		    {emit(DIV);}
+	  | STOREW	  {emit(STOREW);} //
+	  | LOADW           {emit(LOADW);} //
 	  | l=LABEL COL     {labelDef.put($l.text,i);}
-	  | BRANCH l=LABEL  {code[i++] = BRANCH;
-                       labelRef.put(i++,$l.text);}
-	  | BRANCHEQ l=LABEL {code[i++] = BRANCHEQ;
-                        labelRef.put(i++,$l.text);}
-	  | BRANCHLESSEQ l=LABEL {code[i++] = BRANCHLESSEQ;
-                          labelRef.put(i++,$l.text);}
-	  | JS              {code[i++] = JS;}		     //
-	  | LOADRA          {code[i++] = LOADRA;}    //
-	  | STORERA         {code[i++] = STORERA;}   //
-	  | LOADTM          {code[i++] = LOADTM;}   
-	  | STORETM         {code[i++] = STORETM;}   
-	  | LOADFP          {code[i++] = LOADFP;}   //
-	  | STOREFP         {code[i++] = STOREFP;}   //
-	  | COPYFP          {code[i++] = COPYFP;}   //
-	  | LOADHP          {code[i++] = LOADHP;}   //
-	  | STOREHP         {code[i++] = STOREHP;}   //
-	  | PRINT           {code[i++] = PRINT;}
-	  | HALT            {code[i++] = HALT;}
+	  | BRANCH l=LABEL  {emit(BRANCH);
+                       emitLabel($l.text);}
+	  | BRANCHEQ l=LABEL {emit(BRANCHEQ);
+                        emitLabel($l.text);}
+	  | BRANCHLESSEQ l=LABEL {emit(BRANCHLESSEQ);
+                          emitLabel($l.text);}
+	  | BRANCHGREATEREQ l=LABEL {emit(BRANCHGREATEREQ);
+                             emitLabel($l.text);}
+	  | JS              {emit(JS);}		     //
+	  | LOADRA          {emit(LOADRA);}    //
+	  | STORERA         {emit(STORERA);}   //
+	  | LOADTM          {emit(LOADTM);}   
+	  | STORETM         {emit(STORETM);}   
+	  | LOADFP          {emit(LOADFP);}   //
+	  | STOREFP         {emit(STOREFP);}   //
+	  | COPYFP          {emit(COPYFP);}   //
+	  | LOADHP          {emit(LOADHP);}   //
+	  | STOREHP         {emit(STOREHP);}   //
+	  | PRINT           {emit(PRINT);}
+	  | HALT            {emit(HALT);}
+	  | LOADWFP n=INTEGER {emit(LOADWFP);
+	                     emit(Integer.parseInt($n.text));}
+	  | STOREWFP n=INTEGER {emit(STOREWFP);
+	                      emit(Integer.parseInt($n.text));}
+	  | LOADWOFF n=INTEGER {emit(LOADWOFF);
+	                      emit(Integer.parseInt($n.text));}
+	  | HEAPPUSH        {emit(HEAPPUSH);}
+	  | DUP             {emit(DUP);}
+	  | EQUAL           {emit(EQUAL);}
+	  | LESSEQ          {emit(LESSEQ);}
+	  | LESS            {emit(LESS);}
+	  | NOT             {emit(NOT);}
+	  | AND             {emit(AND);}
+	  | OR              {emit(OR);}
+	  | ALLOC n=INTEGER {emit(ALLOC);
+	                     emit(Integer.parseInt($n.text));}
+	  | METHODCALL n=INTEGER {emit(METHODCALL);
+	                          emit(Integer.parseInt($n.text));}
 	  ;
 	  
 /*------------------------------------------------------------------
@@ -71,6 +112,7 @@ LOADW	 : 'lw' ;
 BRANCH	 : 'b' ;	
 BRANCHEQ : 'beq' ;	
 BRANCHLESSEQ:'bleq' ;	
+BRANCHGREATEREQ:'bgeq' ;	
 JS	 : 'js' ;	
 LOADRA	 : 'lra' ;	
 STORERA  : 'sra' ;	 
@@ -83,6 +125,27 @@ LOADHP	 : 'lhp' ;
 STOREHP	 : 'shp' ;	
 PRINT	 : 'print' ;	
 HALT	 : 'halt' ;	
+
+// superinstructions (see compiler.PeepholeOptimizer)
+LOADWFP  : 'lwfp' ;	
+STOREWFP : 'swfp' ;	
+LOADWOFF : 'lwo' ;	
+HEAPPUSH : 'hpush' ;	
+DUP	 : 'dup' ;	
+
+// comparisons and boolean operators: push 1 (true) or 0 (false)
+EQUAL	 : 'eq' ;	
+LESSEQ	 : 'le' ;	
+LESS	 : 'lt' ;	
+NOT	 : 'not' ;	
+AND	 : 'and' ;	
+OR	 : 'or' ;	
+
+// object allocation (see ExecuteVM, GarbageCollector)
+ALLOC	 : 'alloc' ;	
+
+// method call through the dispatch table (see InlineCache)
+METHODCALL : 'mcall' ;	
  
 COL	 : ':' ;
 LABEL	 : ('a'..'z'|'A'..'Z')('a'..'z' | 'A'..'Z' | '0'..'9')* ;
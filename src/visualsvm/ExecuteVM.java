@@ -2,27 +2,27 @@ package visualsvm;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.lang.reflect.InvocationTargetException;
 import javax.swing.*;
 import java.util.*;
 import java.util.List;
-import java.util.stream.*;
+import svm.ExecutionListener;
+import svm.OutputSink;
+import svm.Program;
 
+// Debugger of the SVM: the program is executed by the reference engine of svm.ExecuteVM,
+// step by step or (PLAY) until a breakpoint, through an ExecutionListener.
 public class ExecuteVM {
 
     private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
 
-    public static final int MEMSIZE = 10000;
-    public static final int CODESIZE = 10000;
-    private int[] code;
-    private int[] memory;
-
-    private int ip = 0;
-    private int sp = MEMSIZE; // punta al top dello stack
-
-    private int tm;
-    private int hp = 0;
-    private int ra;
-    private int fp = MEMSIZE;
+    public static final int STACKSIZE = 10000;
+    public static final int HEAPSIZE = 10000;
+    private static final int BASE = svm.ExecuteVM.MEMSIZE - STACKSIZE; // first address shown
+    private static final int ROWS = STACKSIZE + HEAPSIZE;
+    private static final long REFRESH_NANOS = 1_000_000_000L / 30; // UI refresh period while playing (30 fps)
+    private final svm.ExecuteVM vm;
+    private final MemoryListModel memoryModel;
     private final List<CodeLine> codeLines = new ArrayList<>();
     private final JFrame frame;
     private final JPanel mainPanel;
@@ -34,11 +34,13 @@ public class ExecuteVM {
     private final JButton reset;
     private final JButton nextStep;
     private final JButton play;
+    private final JButton pause;
     private final JPanel registerPanel;
     private final JSplitPane memPanel;
     private final JLabel tmLabel, raLabel, fpLabel, ipLabel, spLabel, hpLabel;
     private final JScrollPane asmScroll, stackScroll, heapScroll, outputScroll;
     private final JTextArea outputText;
+    private final StringBuilder output = new StringBuilder(); // printed text, copied in outputText by update()
 
     private final int codeLineCount;
     private String keyboardCommand = "";
@@ -46,13 +48,57 @@ public class ExecuteVM {
     private int[] sourceMap;
     private List<String> source;
     private int debugLineCode = 0;
+    private final History history;
+    private boolean replaying = false; // re-executing steps to rebuild the history, without printing again
+    private Thread player; // executes PLAY outside the event dispatch thread, null when not playing
+    private volatile boolean pauseRequested = false;
+    private int playStart;     // history size when PLAY was pressed
+    private long nextRefresh;  // time of the next UI refresh while playing
+    private boolean suspended; // the player has stopped at a breakpoint or because of a pause
+
+    private final OutputSink sink = new OutputSink() {
+        @Override
+        public void print(int value) {
+            ExecuteVM.this.show(Integer.toString(value));
+        }
+        @Override
+        public void message(String text) {
+            ExecuteVM.this.show(text);
+        }
+    };
+
+    private final ExecutionListener listener = new ExecutionListener() {
+        @Override
+        public boolean beforeStep(int ip) { // called by the player thread only
+            if (history.size() > playStart && lineHasBreakpoint() || pauseRequested) {
+                suspended = true;
+                return false;
+            }
+            if ((history.size() & 0xFF) == 0 && System.nanoTime() >= nextRefresh) {
+                return false;
+            }
+            history.record(output.length());
+            return true;
+        }
+        @Override
+        public void memoryWritten(int address, int oldValue) {
+            history.write(address, oldValue);
+            memoryModel.written(address);
+        }
+    };
 
     public ExecuteVM(int[] code, int[] sourceMap, List<String> source) {
+        this(new Program(code, Map.of(), sourceMap), source);
+    }
+
+    public ExecuteVM(Program program, List<String> source) {
         boolean printArgumentLineNumber = false;
-        this.code = code;
-        this.sourceMap = sourceMap;
+        this.sourceMap = program.sourceMap;
         this.source = source;
-        this.memory = new int[MEMSIZE];
+        this.vm = new svm.ExecuteVM(program, this.sink, STACKSIZE, HEAPSIZE);
+        this.vm.setListener(this.listener);
+        this.history = new History(this.vm);
+        this.memoryModel = new MemoryListModel(this.vm, BASE, ROWS);
 
         this.frame = new JFrame("FOOL Virtual Machine");
         this.mainPanel = new JPanel();
@@ -61,6 +107,9 @@ public class ExecuteVM {
         this.buttonPanel.setLayout(new BoxLayout(this.buttonPanel, BoxLayout.Y_AXIS));
         this.play = new JButton("PLAY");
         this.play.addActionListener(e -> this.playButtonHandler());
+        this.pause = new JButton("PAUSE");
+        this.pause.addActionListener(e -> this.pauseRequested = true);
+        this.pause.setEnabled(false);
         this.reset = new JButton("RESET");
         this.reset.addActionListener(e -> this.resetButtonHandler());
         this.backToBreakPoint = new JButton("BACK TO BREAK POINT");
@@ -70,6 +119,7 @@ public class ExecuteVM {
         this.nextStep = new JButton("STEP");
         this.nextStep.addActionListener(e -> this.stepButtonHandler());
         this.buttonPanel.add(this.play);
+        this.buttonPanel.add(this.pause);
         this.buttonPanel.add(this.nextStep);
         this.buttonPanel.add(this.reset);
         this.buttonPanel.add(this.backToBreakPoint);
@@ -157,13 +207,16 @@ public class ExecuteVM {
         this.asmScroll.setBorder(BorderFactory.createTitledBorder("CODE"));
         this.mainPanel.add(this.asmScroll, BorderLayout.EAST);
 
-        this.stackList = new JList<>();
+        this.stackList = new JList<>(this.memoryModel);
         removeListenersFrom(this.stackList);
-        this.heapList = new JList<>();
+        this.heapList = new JList<>(this.memoryModel);
         removeListenersFrom(this.heapList);
 
         this.stackList.setFont(new Font(Font.MONOSPACED, Font.BOLD, 16));
         this.heapList.setFont(new Font(Font.MONOSPACED, Font.BOLD, 16));
+        // fixed row size, so that the lists never format every row to lay themselves out
+        this.stackList.setPrototypeCellValue(MemoryListModel.PROTOTYPE);
+        this.heapList.setPrototypeCellValue(MemoryListModel.PROTOTYPE);
         this.stackScroll = new JScrollPane(this.stackList, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
                 JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         this.stackScroll.setBorder(BorderFactory.createTitledBorder("STACK"));
@@ -217,15 +270,11 @@ public class ExecuteVM {
     }
 
     private void reset() {
-        this.memory = new int[MEMSIZE];
-        this.tm = 0;
-        this.ra = 0;
-        this.fp = MEMSIZE;
-        this.ip = 0;
-        this.sp = MEMSIZE;
-        this.hp = 0;
+        this.rewindTo(0);
+        this.history.clear();
         this.nextStep.setEnabled(true);
         this.play.setEnabled(true);
+        this.output.setLength(0);
         this.outputText.setText("");
     }
 
@@ -236,43 +285,41 @@ public class ExecuteVM {
     }
 
     private void backToBreakPointButtonHandler() {
-        this.reset();
-        int nearlestBreakpoint = 0;
-        int tempBreakpoint = 0;
-        while (this.step()) {
-            tempBreakpoint++;
+        int target = this.debugLineCode - 1;
+        while (target > 0) {
+            this.rewindTo(target);
             if (lineHasBreakpoint()) {
-                nearlestBreakpoint = tempBreakpoint;
-            }
-
-            if (tempBreakpoint + 1  == this.debugLineCode) {
                 break;
             }
+            target--;
         }
-        this.debugLineCode = nearlestBreakpoint+1;
+        this.debugLineCode = Math.max(target, 0) + 1;
         this.backStepButtonHandler();
-
     }
 
     private void backStepButtonHandler() {
-        this.reset();
-        if (this.debugLineCode < 2) {
-            this.debugLineCode = 0;
-            this.update();
-        } else {
-            this.debugLineCode--;
-            int tempBreakpoint = 0;
-            while (this.step()) {
-                tempBreakpoint++;
-                if (tempBreakpoint == this.debugLineCode) {
-                    this.update();
-                    return;
-                }
+        this.debugLineCode = Math.max(this.debugLineCode - 1, 0);
+        this.rewindTo(this.debugLineCode);
+        this.nextStep.setEnabled(true);
+        this.play.setEnabled(true);
+        this.update();
+    }
+
+    /**
+     * Brings the machine back to the state after the given number of steps, undoing the last steps
+     * from the history or, for old steps, restoring a snapshot and executing forward from there.
+     */
+    private void rewindTo(int steps) {
+        this.memoryModel.writtenAll();
+        while (this.history.size() > steps) {
+            if (this.history.canUndo()) {
+                this.output.setLength(this.history.undo());
+            } else {
+                this.output.setLength(this.history.restoreSnapshot(steps));
+                this.replaying = true;
+                while (this.history.size() < steps && this.step());
+                this.replaying = false;
             }
-            this.nextStep.setEnabled(false);
-            this.play.setEnabled(false);
-            ip--;
-            this.update();
         }
     }
 
@@ -301,79 +348,126 @@ public class ExecuteVM {
     }
 
     private void setMem() {
-        // Codice per non visualizzare 0 in memoria
-//        this.stackList.setListData(new Vector<>(
-//                IntStream.range(0, MEMSIZE).mapToObj(x -> String.format("%5d: %s", x, x <= hp || x >= sp ? this.memory[x] : ""))
-//                        .collect(Collectors.toList())));
-//        this.heapList.setListData(new Vector<>(
-//                IntStream.range(0, MEMSIZE).mapToObj(x -> String.format("%5d: %s", x, x <= hp || x >= sp ? this.memory[x] : ""))
-//                        .collect(Collectors.toList())));
-        final var mem = IntStream.range(0, MEMSIZE)
-                .mapToObj(x -> String.format("%5d: %s", x, this.memory[x]))
-                .collect(Collectors.toCollection(ArrayList::new));
-        mem.add(String.valueOf(MEMSIZE));
-
-        var memory = new Vector<>(mem);
-
-        this.stackList.setListData(memory);
+        this.memoryModel.publish();
+
         this.stackList.clearSelection();
-        this.stackList.setSelectedIndex(this.sp);
+        this.stackList.setSelectedIndex(this.vm.sp() - BASE);
         this.stackScroll.getVerticalScrollBar()
-                .setValue(computeScrollDestination(this.stackScroll.getVerticalScrollBar(), this.sp));
+                .setValue(computeScrollDestination(this.stackScroll.getVerticalScrollBar(), this.vm.sp() - BASE));
 
-        this.heapList.setListData(memory);
         this.heapList.clearSelection();
-        this.heapList.setSelectedIndex(this.hp);
+        this.heapList.setSelectedIndex(this.vm.hp() - BASE);
         this.heapScroll.getVerticalScrollBar()
-                .setValue(computeScrollDestination(this.heapScroll.getVerticalScrollBar(), this.hp));
+                .setValue(computeScrollDestination(this.heapScroll.getVerticalScrollBar(), this.vm.hp() - BASE));
     }
 
     private int computeScrollDestination(JScrollBar scroll, int pointer) {
         return Math.max(
-                pointer * (scroll.getMaximum() / MEMSIZE) - scroll.getHeight() / 2,
+                pointer * (scroll.getMaximum() / ROWS) - scroll.getHeight() / 2,
                 0
         );
     }
 
     private void update() {
-        this.raLabel.setText("RA: " + this.ra);
-        this.fpLabel.setText("FP: " + this.fp);
-        this.tmLabel.setText("TM: " + this.tm);
-        this.ipLabel.setText("IP: " + this.ip);
-        this.hpLabel.setText("HP: " + this.hp);
-        this.spLabel.setText("SP: " + this.sp);
+        this.raLabel.setText("RA: " + this.vm.ra());
+        this.fpLabel.setText("FP: " + this.vm.fp());
+        this.tmLabel.setText("TM: " + this.vm.tm());
+        this.ipLabel.setText("IP: " + this.vm.ip());
+        this.hpLabel.setText("HP: " + this.vm.hp());
+        this.spLabel.setText("SP: " + this.vm.sp());
         this.asmList.clearSelection();
-        this.asmList.setSelectedIndex(this.sourceMap[this.ip]);
+        this.asmList.setSelectedIndex(this.sourceMap[this.vm.ip()]);
         final JScrollBar s = this.asmScroll.getVerticalScrollBar();
-        int dest = this.sourceMap[this.ip] * s.getMaximum() / this.codeLineCount - s.getHeight() / 2;
+        int dest = this.sourceMap[this.vm.ip()] * s.getMaximum() / this.codeLineCount - s.getHeight() / 2;
         s.setValue(Math.max(dest, 0));
         setMem();
-        var condToDisableButton = this.ip != 0;
+        updateOutput();
+        var condToDisableButton = this.vm.ip() != 0 && this.player == null;
         this.reset.setEnabled(condToDisableButton);
         this.backStep.setEnabled(condToDisableButton);
         this.backToBreakPoint.setEnabled(condToDisableButton);
     }
 
+    private void updateOutput() {
+        final int shown = this.outputText.getDocument().getLength();
+        if (shown < this.output.length()) {
+            this.outputText.append(this.output.substring(shown));
+        } else if (shown > this.output.length()) {
+            this.outputText.setText(this.output.toString());
+        }
+    }
+
     public void cpu() {
         this.frame.setVisible(true);
     }
 
     private void playButtonHandler() {
-        while (this.step()) {
-            debugLineCode++;
-            if (lineHasBreakpoint()) {
-                this.update();
-                return;
+        if (this.player != null) {
+            return;
+        }
+        this.pauseRequested = false;
+        this.player = new Thread(this::play, "FOOL VM");
+        this.player.setDaemon(true);
+        this.setPlaying(true);
+        this.player.start();
+    }
+
+    /**
+     * Body of the player thread: runs the machine until a breakpoint, the end of the program or
+     * a pause, refreshing the UI about 30 times per second. The listener suspends the run for each
+     * refresh, which is done with invokeAndWait, so the machine is not running while update() reads it.
+     */
+    private void play() {
+        this.playStart = this.history.size();
+        this.suspended = false;
+        boolean halted = false;
+        while (true) {
+            this.nextRefresh = System.nanoTime() + REFRESH_NANOS;
+            if (!this.vm.cpu()) {
+                halted = true;
+                break;
+            }
+            if (this.suspended) {
+                break;
+            }
+            try {
+                SwingUtilities.invokeAndWait(this::update);
+            } catch (InterruptedException | InvocationTargetException e) {
+                throw new IllegalStateException(e);
             }
         }
-        this.nextStep.setEnabled(false);
-        this.play.setEnabled(false);
-        ip--;
+        this.debugLineCode = this.history.size() - (halted ? 1 : 0); // the last recorded step did not complete
+        final boolean end = halted;
+        SwingUtilities.invokeLater(() -> this.stopPlaying(end));
+    }
+
+    private void stopPlaying(boolean halted) {
+        this.player = null;
+        this.setPlaying(false);
+        if (halted) {
+            this.nextStep.setEnabled(false);
+            this.play.setEnabled(false);
+            this.showLastInstruction();
+        }
         this.update();
     }
 
+    private void setPlaying(boolean playing) {
+        this.pause.setEnabled(playing);
+        this.play.setEnabled(!playing);
+        this.nextStep.setEnabled(!playing);
+        this.reset.setEnabled(!playing);
+        this.backStep.setEnabled(!playing);
+        this.backToBreakPoint.setEnabled(!playing);
+    }
+
+    // after the end of the program, ip is moved back on the instruction that has ended it
+    private void showLastInstruction() {
+        this.vm.setRegisters(this.vm.ip() - 1, this.vm.sp(), this.vm.fp(), this.vm.hp(), this.vm.ra(), this.vm.tm());
+    }
+
     private boolean lineHasBreakpoint() {
-        return this.codeLines.get(this.sourceMap[this.ip])
+        return this.codeLines.get(this.sourceMap[this.vm.ip()])
                 .hasBreakpoint()
                 .orElse(false);
     }
@@ -386,10 +480,14 @@ public class ExecuteVM {
 //    }
 
     private void stepButtonHandler() {
+        if (this.player != null) {
+            return;
+        }
         boolean play = this.step();
         if (!play) {
             this.nextStep.setEnabled(false);
             this.play.setEnabled(false);
+            this.updateOutput();
         } else {
             this.debugLineCode++;
             this.update();
@@ -397,117 +495,13 @@ public class ExecuteVM {
     }
 
     private boolean step() {
-        int bytecode = fetch();
-        int v1, v2;
-        int address;
-        switch (bytecode) {
-            case SVMParser.PUSH:
-                v1 = fetch();
-                push(v1);
-                break;
-            case SVMParser.POP:
-                pop();
-                break;
-            case SVMParser.ADD:
-                v1 = pop();
-                v2 = pop();
-                push(v2 + v1);
-                break;
-            case SVMParser.SUB:
-                v1 = pop();
-                v2 = pop();
-                push(v2 - v1);
-                break;
-            case SVMParser.MULT:
-                v1 = pop();
-                v2 = pop();
-                push(v2 * v1);
-                break;
-            case SVMParser.DIV:
-                v1 = pop();
-                v2 = pop();
-                push(v2 / v1);
-                break;
-            case SVMParser.STOREW:
-                address = pop();
-                memory[address] = pop();
-                break;
-            case SVMParser.LOADW:
-                push(memory[pop()]);
-                break;
-            case SVMParser.BRANCH:
-                ip = fetch();
-                break;
-            case SVMParser.BRANCHEQ:
-                address = fetch();
-                v1 = pop();
-                v2 = pop();
-                ip = v2 == v1 ? address : ip;
-                break;
-            case SVMParser.BRANCHLESSEQ:
-                address = fetch();
-                v1 = pop();
-                v2 = pop();
-                ip = v2 <= v1 ? address : ip;
-                break;
-            case SVMParser.JS:
-                address = pop();
-                ra = ip;
-                ip = address;
-                break;
-            case SVMParser.LOADRA:
-                push(ra);
-                break;
-            case SVMParser.STORERA:
-                ra = pop();
-                break;
-            case SVMParser.LOADTM:
-                push(tm);
-                break;
-            case SVMParser.STORETM:
-                tm = pop();
-                break;
-            case SVMParser.LOADFP:
-                push(fp);
-                break;
-            case SVMParser.STOREFP:
-                fp = pop();
-                break;
-            case SVMParser.COPYFP:
-                fp = sp;
-                break;
-            case SVMParser.LOADHP:
-                push(hp);
-                break;
-            case SVMParser.STOREHP:
-                hp = pop();
-                break;
-            case SVMParser.PRINT:
-                final String output = sp == MEMSIZE ? "EMPTY STACK" : Integer.toString(memory[sp]);
-                System.out.println(output);
-                this.outputText.append(output + "\n");
-                break;
-            case SVMParser.HALT:
-                return false;
-        }
-        if (this.sp <= this.hp) {
-            System.out.println("Segmentation fault");
-            this.outputText.append("Segmentation fault\n");
-            return false;
-        }
-        return true;
+        this.history.record(this.output.length());
+        return this.vm.step();
     }
 
-    private int pop() {
-        return memory[sp++];
-    }
-
-    private void push(int v) {
-        memory[--sp] = v;
-    }
-
-    private int fetch() {
-        return code[ip++];
+    private void show(String text) {
+        if (!this.replaying) System.out.println(text);
+        this.output.append(text).append('\n');
     }
 
 }
@@ -539,7 +533,7 @@ interface CodeLine {
 
     static CodeLine lineWithBreakpoint(String instruction) {
         return new CodeLine() {
-            private boolean breakpoint;
+            private volatile boolean breakpoint; // toggled on the event dispatch thread, read by the player thread
 
             @Override
             public Optional<Boolean> hasBreakpoint() {
@@ -559,6 +553,66 @@ interface CodeLine {
     }
 }
 
+/**
+ * Memory rows shown by the stack and heap lists. Rows are formatted only when the lists display
+ * them, and only the range of addresses written since the last update is notified as changed.
+ * The lists read a copy of the words, taken by publish() while the machine is not running, so
+ * that repainting during PLAY does not read the memory the player thread is changing.
+ */
+class MemoryListModel extends AbstractListModel<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String PROTOTYPE = String.format("%7d: %s", 0, Integer.MIN_VALUE);
+
+    private final svm.ExecuteVM vm;
+    private final int base; // address of the first row
+    private final int size;
+    private final int[] values; // words shown, as of the last publish()
+    private int dirtyLow = Integer.MAX_VALUE;
+    private int dirtyHigh = -1;
+
+    MemoryListModel(svm.ExecuteVM vm, int base, int size) {
+        this.vm = vm;
+        this.base = base;
+        this.size = size;
+        this.values = new int[size];
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int x) {
+        return String.format("%7d: %s", base + x, values[x]);
+    }
+
+    void written(int address) {
+        final int x = address - base;
+        if (x < dirtyLow) dirtyLow = x;
+        if (x > dirtyHigh) dirtyHigh = x;
+    }
+
+    void writtenAll() {
+        dirtyLow = 0;
+        dirtyHigh = size - 1;
+    }
+
+    /**
+     * Copies the rows written since the last call and notifies the lists of them.
+     */
+    void publish() {
+        if (dirtyLow <= dirtyHigh) {
+            for (int x = dirtyLow; x <= dirtyHigh; x++) values[x] = vm.load(base + x);
+            fireContentsChanged(this, dirtyLow, dirtyHigh);
+        }
+        dirtyLow = Integer.MAX_VALUE;
+        dirtyHigh = -1;
+    }
+}
+
 /**
  * Component rendering for CodeLine in JList.
  */
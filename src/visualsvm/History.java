@@ -0,0 +1,167 @@
+package visualsvm;
+
+import java.util.*;
+import svm.ExecuteVM;
+
+/**
+ * Execution history of the machine driven by the visual SVM, used to step backwards without
+ * re-executing the program.
+ * Steps are grouped in segments of SNAPSHOT_INTERVAL steps: each segment keeps a full snapshot of
+ * the memory at its first step and, for each step, the registers before the step and the old value
+ * of every memory word written by it. Only the deltas of the last LIVE_SEGMENTS segments are kept:
+ * going back into an older segment restores its snapshot and re-executes at most
+ * SNAPSHOT_INTERVAL steps, which records its deltas again.
+ */
+class History {
+
+    static final int SNAPSHOT_INTERVAL = 4096;
+    private static final int LIVE_SEGMENTS = 16;
+
+    // registers saved for each step, in this order
+    private static final int IP = 0, SP = 1, FP = 2, HP = 3, RA = 4, TM = 5, OUTPUT = 6, REGISTERS = 7;
+
+    private final ExecuteVM vm;
+    private final List<Segment> segments = new ArrayList<>();
+    private final int[] registers = new int[REGISTERS];
+    private Segment current;
+    private int size = 0; // number of recorded steps
+
+    History(ExecuteVM vm) {
+        this.vm = vm;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        segments.clear();
+        current = null;
+        size = 0;
+    }
+
+    /**
+     * Starts recording a new step, given the length of the output before it.
+     */
+    void record(int output) {
+        int s = size / SNAPSHOT_INTERVAL;
+        if (s == segments.size()) {
+            current = new Segment(size, vm.saveMemory());
+            segments.add(current);
+            if (s >= LIVE_SEGMENTS) segments.get(s - LIVE_SEGMENTS).drop();
+        }
+        current.record(vm.ip(), vm.sp(), vm.fp(), vm.hp(), vm.ra(), vm.tm(), output);
+        size++;
+    }
+
+    /**
+     * Records that the current step is about to overwrite memory[address].
+     */
+    void write(int address, int oldValue) {
+        current.write(address, oldValue);
+    }
+
+    /**
+     * True if the last step can be undone from the deltas, false if the snapshot of its
+     * segment has to be restored and the segment executed again.
+     */
+    boolean canUndo() {
+        return current.live();
+    }
+
+    /**
+     * Undoes the last step: restores the memory words it wrote and the registers before it.
+     * Returns the length of the output before the step.
+     */
+    int undo() {
+        size--;
+        current.undo(size - current.base, vm, registers);
+        if (size == current.base) removeCurrent();
+        return restoreRegisters();
+    }
+
+    /**
+     * Restores the snapshot of the last segment, that is the state before its first step.
+     * If the target step is inside the segment, the segment is kept to be recorded again,
+     * otherwise it is removed. Returns the length of the output at the snapshot.
+     */
+    int restoreSnapshot(int target) {
+        vm.restoreMemory(current.snapshot);
+        System.arraycopy(current.start, 0, registers, 0, REGISTERS);
+        size = current.base;
+        if (target >= current.base) current.revive();
+        else removeCurrent();
+        return restoreRegisters();
+    }
+
+    private int restoreRegisters() {
+        vm.setRegisters(registers[IP], registers[SP], registers[FP], registers[HP], registers[RA], registers[TM]);
+        return registers[OUTPUT];
+    }
+
+    private void removeCurrent() {
+        segments.remove(segments.size() - 1);
+        current = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    }
+
+    private static class Segment {
+        final int base;       // index of the first step
+        final int[] snapshot; // memory before the first step
+        final int[] start = new int[REGISTERS]; // registers before the first step
+        int[] steps;          // registers before each step
+        int[] writeStart;     // index in writes of the first write of each step
+        int[] writes;         // address and old value of each memory write
+        int count, writeCount;
+
+        Segment(int base, int[] snapshot) {
+            this.base = base;
+            this.snapshot = snapshot;
+            revive();
+        }
+
+        boolean live() {
+            return steps != null;
+        }
+
+        void drop() {
+            steps = writeStart = writes = null;
+        }
+
+        void revive() {
+            steps = new int[64 * REGISTERS];
+            writeStart = new int[64];
+            writes = new int[256];
+            count = writeCount = 0;
+        }
+
+        void record(int ip, int sp, int fp, int hp, int ra, int tm, int output) {
+            if (count == writeStart.length) {
+                steps = Arrays.copyOf(steps, 2 * steps.length);
+                writeStart = Arrays.copyOf(writeStart, 2 * writeStart.length);
+            }
+            int r = count * REGISTERS;
+            steps[r + IP] = ip;
+            steps[r + SP] = sp;
+            steps[r + FP] = fp;
+            steps[r + HP] = hp;
+            steps[r + RA] = ra;
+            steps[r + TM] = tm;
+            steps[r + OUTPUT] = output;
+            if (count == 0) System.arraycopy(steps, 0, start, 0, REGISTERS);
+            writeStart[count++] = writeCount;
+        }
+
+        void write(int address, int oldValue) {
+            if (writeCount + 2 > writes.length) writes = Arrays.copyOf(writes, 2 * writes.length);
+            writes[writeCount++] = address;
+            writes[writeCount++] = oldValue;
+        }
+
+        void undo(int step, ExecuteVM vm, int[] registers) {
+            for (int w = writeCount - 2; w >= writeStart[step]; w -= 2) vm.store(writes[w], writes[w + 1]);
+            writeCount = writeStart[step];
+            count = step;
+            System.arraycopy(steps, step * REGISTERS, registers, 0, REGISTERS);
+        }
+    }
+}